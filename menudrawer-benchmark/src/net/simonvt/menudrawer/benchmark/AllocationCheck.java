@@ -0,0 +1,281 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.Bounds;
+import net.simonvt.menudrawer.core.Clock;
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.Edge;
+import net.simonvt.menudrawer.core.FloatScroller;
+import net.simonvt.menudrawer.core.ManualClock;
+import net.simonvt.menudrawer.core.PeekInterpolator;
+import net.simonvt.menudrawer.core.Scroller;
+import net.simonvt.menudrawer.core.SmoothInterpolator;
+import net.simonvt.menudrawer.core.TouchEvent;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Fails if a drag, a settle animation, a fling, a peek or an indicator animation allocates, for every edge. The drag,
+ * settle and fling are gestures of pre-built touch events dispatched through the {@link DrawerTouchHandler} of the
+ * drawers, with a {@link GestureHost} that animates the release with the core scroller. Every frame also computes the
+ * core geometry the drawers draw with.
+ * <p/>
+ * The drawer views aren't run. What they do per frame on top of the core code, such as {@code dispatchDraw},
+ * {@code drawIndicator}, {@code onOffsetPixelsChanged}, the animation runnables and the velocity tracker, isn't
+ * checked here.
+ * <p/>
+ * Run as part of the check task, in interpreted mode so escape analysis can't hide allocations the way it wouldn't on
+ * Dalvik.
+ */
+public final class AllocationCheck {
+
+    private static final float PPI = 2.0f * 160.0f;
+
+    private static final float FRICTION = 0.015f;
+
+    private static final int WIDTH = GestureHost.WIDTH;
+
+    private static final int HEIGHT = GestureHost.HEIGHT;
+
+    private static final int MENU_SIZE = GestureHost.MENU_SIZE;
+
+    private static final int INDICATOR_SIZE = 24;
+
+    /**
+     * Where the gestures start, from the edge.
+     */
+    private static final int TOUCH_DEPTH = GestureHost.TOUCH_SIZE / 4;
+
+    /**
+     * Number of times each scenario runs before it is measured, so class loading and initialization is done.
+     */
+    private static final int WARMUP = 3;
+
+    private final ManualClock mClock = new ManualClock();
+
+    private final GestureHost mHost = new GestureHost(mClock);
+
+    /**
+     * The touch events of each gesture scenario, by edge.
+     */
+    private final TouchEvent[][][] mGestures = new TouchEvent[Edge.values().length][Scenario.COUNT][];
+
+    private final Scroller mPeekScroller = new Scroller(new PeekInterpolator(), PPI, FRICTION, true, mClock);
+
+    private final FloatScroller mIndicatorScroller = new FloatScroller(new SmoothInterpolator(), mClock);
+
+    private final Bounds mBounds = new Bounds();
+
+    private final com.sun.management.ThreadMXBean mThreadBean;
+
+    private final long mThreadId = Thread.currentThread().getId();
+
+    /**
+     * Sink for the computed values, so the work isn't optimized away.
+     */
+    private long mSink;
+
+    private AllocationCheck() {
+        mThreadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+
+        for (Edge edge : Edge.values()) {
+            final TouchEvent[][] gestures = mGestures[edge.ordinal()];
+            // Dragged fully open and back.
+            gestures[Scenario.DRAG] = gesture(edge, 16, path(25, 0, TOUCH_DEPTH, MENU_SIZE + 40, TOUCH_DEPTH));
+            // Dragged halfway and held still, so it settles without velocity.
+            gestures[Scenario.SETTLE] = gesture(edge, 16, path(10, 2, TOUCH_DEPTH, MENU_SIZE / 2));
+            gestures[Scenario.FLING] = gesture(edge, 8, path(80, 0, TOUCH_DEPTH, TOUCH_DEPTH + 400));
+        }
+    }
+
+    /**
+     * Returns the depths from the edge of a pointer that moves through the waypoints by the step, and then stays at
+     * the last waypoint for the given number of events.
+     */
+    private static int[] path(int step, int hold, int... waypoints) {
+        int count = 1 + hold;
+        for (int i = 1; i < waypoints.length; i++) {
+            count += (Math.abs(waypoints[i] - waypoints[i - 1]) + step - 1) / step;
+        }
+
+        final int[] depths = new int[count];
+        int index = 0;
+        depths[index++] = waypoints[0];
+        for (int i = 1; i < waypoints.length; i++) {
+            final int to = waypoints[i];
+            int depth = waypoints[i - 1];
+            while (depth != to) {
+                depth = depth < to ? Math.min(depth + step, to) : Math.max(depth - step, to);
+                depths[index++] = depth;
+            }
+        }
+        while (index < count) {
+            depths[index] = depths[index - 1];
+            index++;
+        }
+
+        return depths;
+    }
+
+    /**
+     * Builds a gesture that touches down at the first depth, moves through the others every interval, and is
+     * released at the last one. The pointer moves along the axis of the edge, through the middle of the view.
+     */
+    private static TouchEvent[] gesture(Edge edge, int interval, int[] depths) {
+        final TouchEvent[] events = new TouchEvent[depths.length];
+        final int[] pointerIds = {0};
+        for (int i = 0; i < depths.length; i++) {
+            final int action;
+            if (i == 0) {
+                action = TouchEvent.ACTION_DOWN;
+            } else if (i == depths.length - 1) {
+                action = TouchEvent.ACTION_UP;
+            } else {
+                action = TouchEvent.ACTION_MOVE;
+            }
+
+            final int axis = edge.edge(WIDTH, HEIGHT) + edge.sign() * depths[i];
+            final float x = edge.isHorizontal() ? axis : WIDTH / 2;
+            final float y = edge.isHorizontal() ? HEIGHT / 2 : axis;
+            events[i] = new TouchEvent(action, 0, pointerIds, new long[] {i * interval}, new float[] {x},
+                    new float[] {y});
+        }
+
+        return events;
+    }
+
+    public static void main(String[] args) {
+        final AllocationCheck check = new AllocationCheck();
+        int failures = 0;
+
+        for (Edge edge : Edge.values()) {
+            for (int scenario = 0; scenario < Scenario.COUNT; scenario++) {
+                final long allocated = check.measure(edge, scenario);
+                final String name = Scenario.NAMES[scenario] + " " + edge;
+                if (allocated > 0) {
+                    System.out.println("FAIL " + name + ": allocated " + allocated + " bytes");
+                    failures++;
+                } else {
+                    System.out.println("OK   " + name);
+                }
+            }
+        }
+
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private long measure(Edge edge, int scenario) {
+        for (int i = 0; i < WARMUP; i++) {
+            run(edge, scenario);
+        }
+
+        // Reading the counter may allocate itself, measure that first.
+        final long overheadStart = mThreadBean.getThreadAllocatedBytes(mThreadId);
+        final long overhead = mThreadBean.getThreadAllocatedBytes(mThreadId) - overheadStart;
+
+        final long start = mThreadBean.getThreadAllocatedBytes(mThreadId);
+        run(edge, scenario);
+        final long end = mThreadBean.getThreadAllocatedBytes(mThreadId);
+
+        return end - start - overhead;
+    }
+
+    private void run(Edge edge, int scenario) {
+        switch (scenario) {
+            case Scenario.DRAG:
+            case Scenario.SETTLE:
+            case Scenario.FLING:
+                gesture(edge, mGestures[edge.ordinal()][scenario]);
+                break;
+
+            case Scenario.PEEK:
+                peek(edge);
+                break;
+
+            case Scenario.INDICATOR:
+                indicator(edge);
+                break;
+        }
+    }
+
+    /**
+     * Dispatches the events of the gesture at their time, and runs the animation the release starts to its end.
+     */
+    private void gesture(Edge edge, TouchEvent[] events) {
+        mHost.reset(edge);
+
+        for (TouchEvent event : events) {
+            mClock.setTime(event.getEventTime() * Clock.NANOS_PER_MS);
+            mHost.dispatchTouchEvent(event);
+            frame(edge, mHost.getOffsetPixels());
+        }
+
+        do {
+            mClock.advance(Frames.INTERVAL);
+            frame(edge, mHost.getOffsetPixels());
+        } while (mHost.computeFrame());
+    }
+
+    private void peek(Edge edge) {
+        mPeekScroller.startScroll(0, 0, edge.openOffset(MENU_SIZE / 3), 0, Frames.DURATION);
+        while (mPeekScroller.computeScrollOffset()) {
+            frame(edge, mPeekScroller.getCurrX());
+            mClock.advance(Frames.INTERVAL);
+        }
+    }
+
+    /**
+     * Animates the indicator between two active views while the drawer is open.
+     */
+    private void indicator(Edge edge) {
+        mIndicatorScroller.startScroll(0.0f, 1.0f, Frames.DURATION);
+        while (mIndicatorScroller.computeScrollOffset()) {
+            final int position = DrawerGeometry.indicatorPosition(100, 900, mIndicatorScroller.getCurr());
+            DrawerGeometry.indicatorBounds(edge, mBounds, MENU_SIZE, INDICATOR_SIZE, position, INDICATOR_SIZE);
+            mSink += mBounds.left + mBounds.top;
+            mClock.advance(Frames.INTERVAL);
+        }
+    }
+
+    /**
+     * The core geometry the drawers compute for one frame at the given offset.
+     */
+    private void frame(Edge edge, float offset) {
+        final float openRatio = DrawerGeometry.openRatio(offset, MENU_SIZE);
+        final int edgePosition = edge.edge(WIDTH, HEIGHT);
+        final int contentEdge = edgePosition + (int) offset;
+
+        mSink += DrawerGeometry.menuParallaxOffset(offset, MENU_SIZE);
+
+        edge.setBand(mBounds, edgePosition, contentEdge, WIDTH, HEIGHT);
+        mSink += mBounds.width() + mBounds.height();
+
+        final int depth = (int) (INDICATOR_SIZE * openRatio);
+        DrawerGeometry.indicatorBounds(edge, mBounds, contentEdge, depth, 200, INDICATOR_SIZE);
+        mSink += mBounds.right + mBounds.bottom;
+    }
+
+    /**
+     * The measured scenarios.
+     */
+    private static final class Scenario {
+
+        static final int DRAG = 0;
+        static final int SETTLE = 1;
+        static final int FLING = 2;
+        static final int PEEK = 3;
+        static final int INDICATOR = 4;
+
+        static final int COUNT = 5;
+
+        static final String[] NAMES = {
+                "drag", "settle", "fling", "peek", "indicator",
+        };
+
+        private Scenario() {
+        }
+    }
+}
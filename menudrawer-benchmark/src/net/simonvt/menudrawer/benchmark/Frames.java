@@ -0,0 +1,27 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.Clock;
+
+/**
+ * Frame timing shared by the benchmarks, so one benchmark invocation covers one animation.
+ */
+final class Frames {
+
+    /**
+     * Duration of the animations, in milliseconds.
+     */
+    static final int DURATION = 600;
+
+    /**
+     * Time between two frames at 60fps, in nanoseconds.
+     */
+    static final long INTERVAL = 1000 * Clock.NANOS_PER_MS / 60;
+
+    /**
+     * Number of frames in an animation.
+     */
+    static final int COUNT = (int) (DURATION * Clock.NANOS_PER_MS / INTERVAL);
+
+    private Frames() {
+    }
+}
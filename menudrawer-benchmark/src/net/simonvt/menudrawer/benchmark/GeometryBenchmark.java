@@ -0,0 +1,106 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.Bounds;
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.Edge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of the per-frame geometry of the drawers, over the offsets of one animation from closed to open.
+ */
+@State(Scope.Thread)
+public class GeometryBenchmark {
+
+    private static final int WIDTH = 1080;
+
+    private static final int HEIGHT = 1920;
+
+    private static final int MENU_SIZE = 600;
+
+    private static final int DROP_SHADOW_SIZE = 12;
+
+    private static final int INDICATOR_SIZE = 24;
+
+    @Param({ "LEFT", "TOP", "RIGHT", "BOTTOM" })
+    public String mEdgeName;
+
+    private Edge mEdge;
+
+    private final Bounds mBounds = new Bounds();
+
+    private float[] mOffsets;
+
+    @Setup
+    public void setup() {
+        mEdge = Edge.valueOf(mEdgeName);
+
+        mOffsets = new float[Frames.COUNT + 1];
+        for (int frame = 0; frame <= Frames.COUNT; frame++) {
+            mOffsets[frame] = mEdge.openOffset(MENU_SIZE) * (float) frame / Frames.COUNT;
+        }
+    }
+
+    /**
+     * The menu offset of the sliding drawer.
+     */
+    @Benchmark
+    public void menuParallaxOffset(Blackhole bh) {
+        for (float offset : mOffsets) {
+            bh.consume(DrawerGeometry.menuParallaxOffset(offset, MENU_SIZE));
+        }
+    }
+
+    /**
+     * The bounds of the overlay of the sliding drawer.
+     */
+    @Benchmark
+    public void overlayBounds(Blackhole bh) {
+        final int edge = mEdge.edge(WIDTH, HEIGHT);
+        for (float offset : mOffsets) {
+            mEdge.setBand(mBounds, edge, edge + (int) offset, WIDTH, HEIGHT);
+            bh.consume(mBounds);
+        }
+    }
+
+    /**
+     * The drop shadow bounds of the overlay drawer.
+     */
+    @Benchmark
+    public void shadowBounds(Blackhole bh) {
+        for (float offset : mOffsets) {
+            final int shadowSize = (int) (DROP_SHADOW_SIZE * DrawerGeometry.openRatio(offset, MENU_SIZE));
+            final int menuEdge = mEdge.edge(WIDTH, HEIGHT) + (int) offset;
+            mEdge.setBand(mBounds, menuEdge, menuEdge + mEdge.openOffset(shadowSize), WIDTH, HEIGHT);
+            bh.consume(mBounds);
+        }
+    }
+
+    /**
+     * The bounds of the active indicator of the sliding drawer.
+     */
+    @Benchmark
+    public void indicatorBounds(Blackhole bh) {
+        for (float offset : mOffsets) {
+            final int depth = (int) (INDICATOR_SIZE * DrawerGeometry.openRatio(offset, MENU_SIZE));
+            final int contentEdge = mEdge.edge(WIDTH, HEIGHT) + (int) offset;
+            DrawerGeometry.indicatorBounds(mEdge, mBounds, contentEdge, depth, 200, INDICATOR_SIZE);
+            bh.consume(mBounds);
+        }
+    }
+
+    /**
+     * Clamping of the offset while dragging.
+     */
+    @Benchmark
+    public void clampOffset(Blackhole bh) {
+        for (float offset : mOffsets) {
+            bh.consume(mEdge.clampOffset(offset + mEdge.axis(7.5f, 3.0f), MENU_SIZE));
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.Edge;
+import net.simonvt.menudrawer.core.ManualClock;
+import net.simonvt.menudrawer.core.Scroller;
+import net.simonvt.menudrawer.core.SmoothInterpolator;
+import net.simonvt.menudrawer.core.TouchEvent;
+import net.simonvt.menudrawer.core.TouchInput;
+
+/**
+ * A sliding drawer for {@link AllocationCheck}: the host of the {@link DrawerTouchHandler} the drawers handle their
+ * touch events with, that animates with the core scroller and doesn't allocate itself. Events are dispatched like
+ * {@code ViewGroup} does, the content consumes the events that aren't intercepted and has no scrollable children.
+ */
+final class GestureHost implements DrawerTouchHandler.Host {
+
+    static final int WIDTH = 1080;
+
+    static final int HEIGHT = 1920;
+
+    static final int MENU_SIZE = 600;
+
+    static final int TOUCH_SIZE = 48;
+
+    private static final int TOUCH_SLOP = 16;
+
+    private static final int CLOSE_ENOUGH = 6;
+
+    private static final int MAX_VELOCITY = 8000;
+
+    private static final int MAX_DURATION = 600;
+
+    private final ManualClock mClock;
+
+    private final Scroller mScroller;
+
+    private final DrawerTouchHandler mTouchHandler = new DrawerTouchHandler(this, false);
+
+    private Edge mEdge = Edge.LEFT;
+
+    private float mOffsetPixels;
+
+    private boolean mMenuVisible;
+
+    private int mDrawerState;
+
+    private boolean mAnimating;
+
+    private boolean mIntercepted;
+
+    private boolean mDisallowIntercept;
+
+    private int mSampleCount;
+
+    /**
+     * The last two samples of the active pointer along the axis, for the velocity.
+     */
+    private long mLastTime;
+
+    private float mLastPosition;
+
+    private long mPreviousTime;
+
+    private float mPreviousPosition;
+
+    GestureHost(ManualClock clock) {
+        mClock = clock;
+        mScroller = new Scroller(new SmoothInterpolator(), 2.0f * 160.0f, 0.015f, true, clock);
+    }
+
+    /**
+     * Closes the drawer and attaches it to the edge.
+     */
+    void reset(Edge edge) {
+        stopAnimation();
+        mTouchHandler.endDrag();
+        mEdge = edge;
+        mOffsetPixels = 0.0f;
+        mMenuVisible = false;
+        mDrawerState = DrawerTouchHandler.STATE_CLOSED;
+    }
+
+    void dispatchTouchEvent(TouchEvent ev) {
+        final int action = ev.getActionMasked();
+        if (action == TouchEvent.ACTION_DOWN) {
+            mIntercepted = false;
+            mDisallowIntercept = false;
+        }
+
+        if (!mIntercepted) {
+            if (mDisallowIntercept || !mTouchHandler.onInterceptTouchEvent(ev)) {
+                return;
+            }
+
+            mIntercepted = true;
+            if (action != TouchEvent.ACTION_DOWN) {
+                return;
+            }
+        }
+
+        mTouchHandler.onTouchEvent(ev);
+    }
+
+    /**
+     * Moves the animation to the time of the clock. Returns whether the drawer is still animating.
+     */
+    boolean computeFrame() {
+        if (!mAnimating) {
+            return false;
+        }
+
+        if (mScroller.computeScrollOffset()) {
+            final int x = mScroller.getCurrX();
+            if (x != (int) mOffsetPixels) setOffsetPixels(x);
+            if (mScroller.isFinished()) completeAnimation();
+        } else {
+            completeAnimation();
+        }
+
+        return mAnimating;
+    }
+
+    private void completeAnimation() {
+        mScroller.abortAnimation();
+        final int finalX = mScroller.getFinalX();
+        setOffsetPixels(finalX);
+        mDrawerState = finalX == 0 ? DrawerTouchHandler.STATE_CLOSED : DrawerTouchHandler.STATE_OPEN;
+        mAnimating = false;
+    }
+
+    @Override
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    @Override
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    @Override
+    public Edge getEdge() {
+        return mEdge;
+    }
+
+    @Override
+    public float getOffsetPixels() {
+        return mOffsetPixels;
+    }
+
+    @Override
+    public boolean isMenuVisible() {
+        return mMenuVisible;
+    }
+
+    @Override
+    public boolean isPeeking() {
+        return false;
+    }
+
+    @Override
+    public int getDrawerState() {
+        return mDrawerState;
+    }
+
+    @Override
+    public int getMenuSize() {
+        return MENU_SIZE;
+    }
+
+    @Override
+    public int getTouchMode() {
+        return DrawerTouchHandler.TOUCH_MODE_BEZEL;
+    }
+
+    @Override
+    public int getTouchSize() {
+        return TOUCH_SIZE;
+    }
+
+    @Override
+    public int getTouchSlop() {
+        return TOUCH_SLOP;
+    }
+
+    @Override
+    public int getPeekSize() {
+        return 0;
+    }
+
+    @Override
+    public int getCloseEnough() {
+        return CLOSE_ENOUGH;
+    }
+
+    @Override
+    public boolean onDownAllowDrag(int x, int y) {
+        return mTouchHandler.onDownAllowDrag(x, y);
+    }
+
+    @Override
+    public boolean onMoveAllowDrag(int x, int y, float dx, float dy) {
+        return mTouchHandler.onMoveAllowDrag(x, y, dx, dy);
+    }
+
+    @Override
+    public void onMoveEvent(float dx, float dy) {
+        mTouchHandler.onMoveEvent(dx, dy);
+    }
+
+    @Override
+    public void onUpEvent(int x, int y) {
+        mTouchHandler.onUpEvent(x, y);
+    }
+
+    @Override
+    public boolean checkTouchSlop(float dx, float dy) {
+        return mTouchHandler.checkTouchSlop(dx, dy);
+    }
+
+    @Override
+    public boolean isCloseEnough() {
+        return mTouchHandler.isCloseEnough();
+    }
+
+    @Override
+    public boolean isContentTouch(int x, int y) {
+        return mEdge.isBeyond(mEdge.axis(x, y), mEdge.edge(WIDTH, HEIGHT) + (int) mOffsetPixels);
+    }
+
+    @Override
+    public boolean canChildrenScroll(int dx, int dy, int x, int y) {
+        return false;
+    }
+
+    @Override
+    public void setOffsetPixels(float offsetPixels) {
+        final int oldOffset = (int) mOffsetPixels;
+        final int newOffset = (int) offsetPixels;
+
+        mOffsetPixels = offsetPixels;
+        if (newOffset != oldOffset) {
+            mMenuVisible = newOffset != 0;
+        }
+    }
+
+    @Override
+    public void setDrawerState(int state) {
+        mDrawerState = state;
+    }
+
+    @Override
+    public void stopAnimation() {
+        mScroller.abortAnimation();
+        mAnimating = false;
+    }
+
+    @Override
+    public void endPeek() {
+    }
+
+    @Override
+    public void openMenu() {
+        animateOffsetTo(mEdge.openOffset(MENU_SIZE), 0);
+    }
+
+    @Override
+    public void closeMenu() {
+        animateOffsetTo(0, 0);
+    }
+
+    @Override
+    public void animateOffsetTo(int position, int velocity) {
+        mTouchHandler.endDrag();
+
+        final int startX = (int) mOffsetPixels;
+        final int dx = position - startX;
+        if (dx == 0) {
+            setOffsetPixels(position);
+            mDrawerState = position == 0 ? DrawerTouchHandler.STATE_CLOSED : DrawerTouchHandler.STATE_OPEN;
+            return;
+        }
+
+        final int duration = DrawerGeometry.animationDuration(dx, velocity, MENU_SIZE, MAX_DURATION);
+        mDrawerState = mEdge.isOpening(dx) ? DrawerTouchHandler.STATE_OPENING : DrawerTouchHandler.STATE_CLOSING;
+        mScroller.startScroll(startX, 0, dx, 0, duration, mClock.nanoTime());
+        mAnimating = true;
+    }
+
+    @Override
+    public void scheduleReveal() {
+    }
+
+    @Override
+    public void cancelReveal() {
+    }
+
+    @Override
+    public void prepareLayerTranslation() {
+    }
+
+    @Override
+    public void startLayerTranslation() {
+    }
+
+    @Override
+    public void cancelLayerTranslation() {
+    }
+
+    @Override
+    public void requestDisallowInterceptTouchEvent() {
+        mDisallowIntercept = true;
+    }
+
+    /**
+     * The events are built without historical samples, so only the current sample is tracked.
+     */
+    @Override
+    public void addMovement(TouchInput ev) {
+        final int pointerId = ev.getActionMasked() == TouchEvent.ACTION_DOWN
+                ? ev.getPointerId(0)
+                : mTouchHandler.getActivePointerId();
+        final int index = ev.findPointerIndex(pointerId);
+        if (index == -1) {
+            return;
+        }
+
+        if (ev.getActionMasked() == TouchEvent.ACTION_DOWN) {
+            clearMovements();
+        }
+        mPreviousTime = mLastTime;
+        mPreviousPosition = mLastPosition;
+        mLastTime = ev.getEventTime();
+        mLastPosition = mEdge.axis(ev.getX(index), ev.getY(index));
+        mSampleCount++;
+    }
+
+    @Override
+    public void clearMovements() {
+        mSampleCount = 0;
+    }
+
+    @Override
+    public void releaseMovements() {
+        clearMovements();
+    }
+
+    @Override
+    public float getVelocity(int pointerId) {
+        final long dt = mLastTime - mPreviousTime;
+        if (mSampleCount < 2 || dt <= 0L) {
+            return 0.0f;
+        }
+
+        final float velocity = (mLastPosition - mPreviousPosition) * 1000.0f / dt;
+        return Math.max(-MAX_VELOCITY, Math.min(velocity, MAX_VELOCITY));
+    }
+}
@@ -0,0 +1,53 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.AccelerateInterpolator;
+import net.simonvt.menudrawer.core.Interpolator;
+import net.simonvt.menudrawer.core.PeekInterpolator;
+import net.simonvt.menudrawer.core.SinusoidalInterpolator;
+import net.simonvt.menudrawer.core.SmoothInterpolator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of evaluating the interpolators over the frames of one animation.
+ */
+@State(Scope.Thread)
+public class InterpolatorBenchmark {
+
+    private final Interpolator mSmooth = new SmoothInterpolator();
+
+    private final Interpolator mPeek = new PeekInterpolator();
+
+    private final Interpolator mSinusoidal = new SinusoidalInterpolator();
+
+    private final Interpolator mAccelerate = new AccelerateInterpolator();
+
+    @Benchmark
+    public void smooth(Blackhole bh) {
+        interpolate(mSmooth, bh);
+    }
+
+    @Benchmark
+    public void peek(Blackhole bh) {
+        interpolate(mPeek, bh);
+    }
+
+    @Benchmark
+    public void sinusoidal(Blackhole bh) {
+        interpolate(mSinusoidal, bh);
+    }
+
+    @Benchmark
+    public void accelerate(Blackhole bh) {
+        interpolate(mAccelerate, bh);
+    }
+
+    private static void interpolate(Interpolator interpolator, Blackhole bh) {
+        for (int frame = 0; frame <= Frames.COUNT; frame++) {
+            bh.consume(interpolator.getInterpolation((float) frame / Frames.COUNT));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.FloatScroller;
+import net.simonvt.menudrawer.core.ManualClock;
+import net.simonvt.menudrawer.core.PeekInterpolator;
+import net.simonvt.menudrawer.core.Scroller;
+import net.simonvt.menudrawer.core.SmoothInterpolator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of running a scroller through all frames of an animation. The clock is stepped manually, so every invocation
+ * computes the same frames.
+ */
+@State(Scope.Thread)
+public class ScrollerBenchmark {
+
+    /**
+     * Pixels per inch of an xhdpi display.
+     */
+    private static final float PPI = 2.0f * 160.0f;
+
+    /**
+     * Default value of ViewConfiguration.getScrollFriction().
+     */
+    private static final float FRICTION = 0.015f;
+
+    private static final int MENU_SIZE = 600;
+
+    private ManualClock mClock;
+
+    private Scroller mScroller;
+
+    private Scroller mPeekScroller;
+
+    private FloatScroller mFloatScroller;
+
+    @Setup
+    public void setup() {
+        mClock = new ManualClock();
+        mScroller = new Scroller(new SmoothInterpolator(), PPI, FRICTION, true, mClock);
+        mPeekScroller = new Scroller(new PeekInterpolator(), PPI, FRICTION, true, mClock);
+        mFloatScroller = new FloatScroller(new SmoothInterpolator(), mClock);
+    }
+
+    @Benchmark
+    public void scroll(Blackhole bh) {
+        mScroller.startScroll(0, 0, MENU_SIZE, 0, Frames.DURATION);
+        while (mScroller.computeScrollOffset()) {
+            bh.consume(mScroller.getCurrX());
+            mClock.advance(Frames.INTERVAL);
+        }
+    }
+
+    @Benchmark
+    public void peek(Blackhole bh) {
+        mPeekScroller.startScroll(0, 0, MENU_SIZE / 3, 0, Frames.DURATION);
+        while (mPeekScroller.computeScrollOffset()) {
+            bh.consume(mPeekScroller.getCurrX());
+            mClock.advance(Frames.INTERVAL);
+        }
+    }
+
+    @Benchmark
+    public void fling(Blackhole bh) {
+        mScroller.fling(0, 0, 4000, 0, 0, MENU_SIZE, 0, 0);
+        while (mScroller.computeScrollOffset()) {
+            bh.consume(mScroller.getCurrX());
+            mClock.advance(Frames.INTERVAL);
+        }
+    }
+
+    @Benchmark
+    public void floatScroll(Blackhole bh) {
+        mFloatScroller.startScroll(0.0f, 1.0f, Frames.DURATION);
+        while (mFloatScroller.computeScrollOffset()) {
+            bh.consume(mFloatScroller.getCurr());
+            mClock.advance(Frames.INTERVAL);
+        }
+    }
+}
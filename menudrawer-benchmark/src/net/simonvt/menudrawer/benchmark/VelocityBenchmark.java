@@ -0,0 +1,34 @@
+package net.simonvt.menudrawer.benchmark;
+
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.Edge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of turning the velocity of a released drag into the target and duration of the settle animation.
+ */
+@State(Scope.Thread)
+public class VelocityBenchmark {
+
+    private static final int MENU_SIZE = 600;
+
+    private static final int MAX_DURATION = 600;
+
+    private static final int[] VELOCITIES = { -8000, -2500, -400, 0, 400, 2500, 8000 };
+
+    private final Edge mEdge = Edge.LEFT;
+
+    @Benchmark
+    public void settle(Blackhole bh) {
+        for (int velocity : VELOCITIES) {
+            final int target = mEdge.settleOffset(velocity, MENU_SIZE);
+            final int dx = target - MENU_SIZE / 2;
+            bh.consume(target);
+            bh.consume(DrawerGeometry.animationDuration(dx, velocity, MENU_SIZE, MAX_DURATION));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * Interpolator where the rate of change starts out slowly and then accelerates. Same curve as
+ * {@code android.view.animation.AccelerateInterpolator} with the default factor.
+ */
+public class AccelerateInterpolator implements Interpolator {
+
+    @Override
+    public float getInterpolation(float input) {
+        return input * input;
+    }
+}
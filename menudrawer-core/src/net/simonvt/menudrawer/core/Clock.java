@@ -0,0 +1,31 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * Source of time for the drawer animations. Times are in nanoseconds.
+ */
+public interface Clock {
+
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    long NANOS_PER_MS = 1000000L;
+
+    /**
+     * Clock reading {@link System#nanoTime()}, for code running on the JVM such as the benchmarks. Drawers on Android
+     * read the animation clock instead, which is locked to the frame time. On Android {@link System#nanoTime()} uses
+     * the same time base as {@code SystemClock.uptimeMillis()}, and thereby {@code MotionEvent.getEventTime()}.
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * Returns the current time in nanoseconds.
+     *
+     * @return The current time in nanoseconds.
+     */
+    long nanoTime();
+}
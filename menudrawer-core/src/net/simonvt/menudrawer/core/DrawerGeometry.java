@@ -0,0 +1,98 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * Per-frame drawer math that doesn't depend on the Android framework.
+ */
+public final class DrawerGeometry {
+
+    /**
+     * How far the menu of a sliding drawer trails the content, relative to the closed part of the menu.
+     */
+    private static final float MENU_PARALLAX = 0.25f;
+
+    /**
+     * Duration of an animation across the full menu, when not flung.
+     */
+    private static final float FULL_ANIMATION_DURATION = 600.f;
+
+    private DrawerGeometry() {
+    }
+
+    /**
+     * Returns how far the drawer is open, between 0 and 1.
+     *
+     * @param offsetPixels The offset of the drawer.
+     * @param menuSize     The size of the menu.
+     */
+    public static float openRatio(float offsetPixels, int menuSize) {
+        return Math.abs(offsetPixels) / menuSize;
+    }
+
+    /**
+     * Returns the offset of the menu of a sliding drawer, relative to its open position, so it trails the content.
+     *
+     * @param offsetPixels The offset of the drawer.
+     * @param menuSize     The size of the menu.
+     */
+    public static int menuParallaxOffset(float offsetPixels, int menuSize) {
+        final int sign = (int) (offsetPixels / Math.abs(offsetPixels));
+        final float openRatio = openRatio(offsetPixels, menuSize);
+        return (int) (-MENU_PARALLAX * ((1.0f - openRatio) * menuSize) * sign);
+    }
+
+    /**
+     * Returns the duration of an animation that moves the drawer by the given distance.
+     *
+     * @param dx          The distance the drawer is animated by.
+     * @param velocity    The velocity the drawer was released with, or 0.
+     * @param menuSize    The size of the menu.
+     * @param maxDuration The maximum duration of the animation.
+     */
+    public static int animationDuration(int dx, int velocity, int menuSize, int maxDuration) {
+        int duration;
+
+        velocity = Math.abs(velocity);
+        if (velocity > 0) {
+            duration = 4 * Math.round(1000.f * Math.abs((float) dx / velocity));
+        } else {
+            duration = (int) (FULL_ANIMATION_DURATION * Math.abs((float) dx / menuSize));
+        }
+
+        return Math.min(duration, maxDuration);
+    }
+
+    /**
+     * Computes the bounds of the active indicator. The indicator sticks out of the side of the content that faces the
+     * edge, and is centered across the axis on the active view.
+     *
+     * @param edge         The edge of the drawer.
+     * @param bounds       The bounds to update.
+     * @param contentEdge  The side of the content that faces the edge.
+     * @param depth        How far the indicator sticks out of the content.
+     * @param crossStart   Where the indicator starts across the axis.
+     * @param crossSize    The size of the indicator across the axis.
+     */
+    public static void indicatorBounds(Edge edge, Bounds bounds, int contentEdge, int depth, int crossStart,
+            int crossSize) {
+        final int indicatorEdge = contentEdge - edge.sign() * depth;
+        final int axisStart = Math.min(contentEdge, indicatorEdge);
+        final int axisEnd = Math.max(contentEdge, indicatorEdge);
+
+        if (edge.isHorizontal()) {
+            bounds.set(axisStart, crossStart, axisEnd, crossStart + crossSize);
+        } else {
+            bounds.set(crossStart, axisStart, crossStart + crossSize, axisEnd);
+        }
+    }
+
+    /**
+     * Returns where the indicator starts across the axis while it animates between two active views.
+     *
+     * @param startPos The position the animation started at.
+     * @param finalPos The position the animation ends at.
+     * @param fraction How far the animation has run, between 0 and 1.
+     */
+    public static int indicatorPosition(int startPos, int finalPos, float fraction) {
+        return (int) (startPos + ((finalPos - startPos) * fraction));
+    }
+}
@@ -0,0 +1,710 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * The touch handling of {@code SlidingDrawer} and {@code OverlayDrawer}: decides when a gesture is intercepted from
+ * the children, drags the drawer, and settles it when the gesture ends. The drawers forward
+ * {@code onInterceptTouchEvent} and {@code onTouchEvent} to it, and the gesture replay drives it with recorded events.
+ * <p/>
+ * Everything that depends on the view hierarchy, the animations and the velocity tracker is left to the {@link Host}.
+ */
+public final class DrawerTouchHandler {
+
+    /**
+     * Indicates that the drawer is in an idle, settled state. No animation is in progress.
+     */
+    public static final int STATE_CLOSED = 0;
+
+    /**
+     * The drawer is unstable and is closing.
+     */
+    public static final int STATE_CLOSING = 1;
+
+    /**
+     * The drawer is currently being dragged.
+     */
+    public static final int STATE_DRAGGING = 2;
+
+    /**
+     * The drawer is unstable and is opening.
+     */
+    public static final int STATE_OPENING = 4;
+
+    /**
+     * The drawer is open.
+     */
+    public static final int STATE_OPEN = 8;
+
+    /**
+     * Disallow opening the drawer by dragging the screen.
+     */
+    public static final int TOUCH_MODE_NONE = 0;
+
+    /**
+     * Allow opening drawer only by dragging on the edge of the screen.
+     */
+    public static final int TOUCH_MODE_BEZEL = 1;
+
+    /**
+     * Allow opening drawer by dragging anywhere on the screen.
+     */
+    public static final int TOUCH_MODE_FULLSCREEN = 2;
+
+    /**
+     * Delay in milliseconds from the edge of a closed overlay drawer is touched until the drawer is revealed.
+     */
+    public static final int REVEAL_DELAY = 160;
+
+    /**
+     * Duration in milliseconds of the reveal of the overlay drawer.
+     */
+    public static final int REVEAL_DURATION = 250;
+
+    /**
+     * Value of the active pointer id when no pointer is tracked.
+     */
+    public static final int INVALID_POINTER = -1;
+
+    /**
+     * The drawer the touch events are handled for.
+     * <p/>
+     * The {@code on*} methods, {@link #checkTouchSlop(float, float)} and {@link #isCloseEnough()} are the hooks the
+     * drawers let subclasses override. A host without its own rules forwards them to the methods of the same name of
+     * the handler.
+     */
+    public interface Host {
+
+        int getWidth();
+
+        int getHeight();
+
+        /**
+         * Returns the edge the menu is attached to.
+         */
+        Edge getEdge();
+
+        float getOffsetPixels();
+
+        boolean isMenuVisible();
+
+        boolean isPeeking();
+
+        /**
+         * Returns the current state, one of the {@code STATE_*} constants.
+         */
+        int getDrawerState();
+
+        int getMenuSize();
+
+        /**
+         * Returns the touch mode, one of the {@code TOUCH_MODE_*} constants.
+         */
+        int getTouchMode();
+
+        /**
+         * Returns the distance from the edge a drag must start within to open the drawer.
+         */
+        int getTouchSize();
+
+        int getTouchSlop();
+
+        /**
+         * Returns the size the overlay drawer is revealed by when its edge is touched.
+         */
+        int getPeekSize();
+
+        /**
+         * Returns the offset below which the drawer is considered closed when touched.
+         */
+        int getCloseEnough();
+
+        /**
+         * Returns whether the touch down at the point can start a drag.
+         */
+        boolean onDownAllowDrag(int x, int y);
+
+        /**
+         * Returns whether a touch that moved past the slop to the point starts a drag.
+         */
+        boolean onMoveAllowDrag(int x, int y, float dx, float dy);
+
+        /**
+         * Moves the drawer by a drag.
+         */
+        void onMoveEvent(float dx, float dy);
+
+        /**
+         * Settles the drawer when the gesture ends at the point.
+         */
+        void onUpEvent(int x, int y);
+
+        /**
+         * Returns whether the delta is past the slop along the axis of the edge.
+         */
+        boolean checkTouchSlop(float dx, float dy);
+
+        /**
+         * Returns whether the drawer is close enough to closed to be treated as closed when touched.
+         */
+        boolean isCloseEnough();
+
+        /**
+         * Returns whether the point is over the content, outside of the visible menu.
+         */
+        boolean isContentTouch(int x, int y);
+
+        /**
+         * Returns whether a child under the point can be scrolled by the delta, and should get the gesture.
+         */
+        boolean canChildrenScroll(int dx, int dy, int x, int y);
+
+        void setOffsetPixels(float offsetPixels);
+
+        void setDrawerState(int state);
+
+        /**
+         * Stops ongoing animation of the drawer, including a scheduled reveal.
+         */
+        void stopAnimation();
+
+        /**
+         * Stops ongoing peek drawer animation.
+         */
+        void endPeek();
+
+        void openMenu();
+
+        void closeMenu();
+
+        /**
+         * Animates the drawer to the position a drag was released at.
+         */
+        void animateOffsetTo(int position, int velocity);
+
+        /**
+         * Reveals the overlay drawer after {@link #REVEAL_DELAY}, unless cancelled.
+         */
+        void scheduleReveal();
+
+        void cancelReveal();
+
+        void prepareLayerTranslation();
+
+        void startLayerTranslation();
+
+        void cancelLayerTranslation();
+
+        /**
+         * Stops intercepting the rest of the gesture, so a child can scroll.
+         */
+        void requestDisallowInterceptTouchEvent();
+
+        void addMovement(TouchInput ev);
+
+        void clearMovements();
+
+        /**
+         * Releases the velocity tracker once a drag has ended.
+         */
+        void releaseMovements();
+
+        /**
+         * Returns the velocity of the active pointer along the axis of the edge, in pixels per second.
+         */
+        float getVelocity(int pointerId);
+    }
+
+    private final Host mHost;
+
+    /**
+     * Whether the menu is overlaid on the content, instead of the content sliding to reveal it.
+     */
+    private final boolean mOverlay;
+
+    /**
+     * Indicates whether the drawer is currently being dragged.
+     */
+    private boolean mIsDragging;
+
+    /**
+     * The current pointer id.
+     */
+    private int mActivePointerId = INVALID_POINTER;
+
+    /**
+     * The initial position of a drag.
+     */
+    private float mInitialMotionX;
+
+    private float mInitialMotionY;
+
+    /**
+     * The last position of a drag.
+     */
+    private float mLastMotionX = -1;
+
+    private float mLastMotionY = -1;
+
+    /**
+     * Indicates whether the current gesture was found on {@code ACTION_DOWN} to never involve the drawer.
+     */
+    private boolean mGestureRejected;
+
+    public DrawerTouchHandler(Host host, boolean overlay) {
+        mHost = host;
+        mOverlay = overlay;
+    }
+
+    public boolean isDragging() {
+        return mIsDragging;
+    }
+
+    public int getActivePointerId() {
+        return mActivePointerId;
+    }
+
+    public float getInitialMotionX() {
+        return mInitialMotionX;
+    }
+
+    public float getInitialMotionY() {
+        return mInitialMotionY;
+    }
+
+    public float getLastMotionX() {
+        return mLastMotionX;
+    }
+
+    public float getLastMotionY() {
+        return mLastMotionY;
+    }
+
+    /**
+     * Called when a drag has been ended.
+     */
+    public void endDrag() {
+        mIsDragging = false;
+        mHost.releaseMovements();
+    }
+
+    public boolean onInterceptTouchEvent(TouchInput ev) {
+        final Host host = mHost;
+        final int action = ev.getActionMasked();
+
+        if (action == TouchEvent.ACTION_DOWN) {
+            mGestureRejected = isGestureRejected((int) ev.getX(0), (int) ev.getY(0));
+        }
+
+        // Pass gestures that can't involve the drawer straight through.
+        if (mGestureRejected && !host.isMenuVisible()) {
+            return false;
+        }
+
+        if (action == TouchEvent.ACTION_UP || action == TouchEvent.ACTION_CANCEL) {
+            if (mOverlay) host.cancelReveal();
+            mActivePointerId = INVALID_POINTER;
+            mIsDragging = false;
+            host.releaseMovements();
+
+            if (Math.abs(host.getOffsetPixels()) > host.getMenuSize() / 2) {
+                host.openMenu();
+            } else {
+                host.closeMenu();
+            }
+            // Releases the layers prepared on ACTION_DOWN, unless the drawer started animating.
+            host.cancelLayerTranslation();
+
+            return false;
+        }
+
+        if (action == TouchEvent.ACTION_DOWN && host.isMenuVisible()
+                && host.isCloseEnough()) {
+            host.setOffsetPixels(0);
+            host.stopAnimation();
+            host.endPeek();
+            host.setDrawerState(STATE_CLOSED);
+            mIsDragging = false;
+        }
+
+        // Always intercept events over the content while menu is visible.
+        if (host.isMenuVisible() && isContentTouch(ev)) {
+            return true;
+        }
+
+        if (!host.isMenuVisible() && !mIsDragging && host.getTouchMode() == TOUCH_MODE_NONE) {
+            return false;
+        }
+
+        if (action != TouchEvent.ACTION_DOWN && mIsDragging) {
+            return true;
+        }
+
+        switch (action) {
+            case TouchEvent.ACTION_DOWN:
+                onInterceptDown(ev);
+                break;
+
+            case TouchEvent.ACTION_MOVE:
+                if (!onInterceptMove(ev)) {
+                    return false;
+                }
+                break;
+
+            case TouchEvent.ACTION_POINTER_UP:
+                onPointerUp(ev);
+                mLastMotionX = ev.getX(ev.findPointerIndex(mActivePointerId));
+                mLastMotionY = ev.getY(ev.findPointerIndex(mActivePointerId));
+                break;
+        }
+
+        host.addMovement(ev);
+
+        return mIsDragging;
+    }
+
+    /**
+     * Returns whether the active pointer, or the first pointer if there is none, is over the content.
+     */
+    private boolean isContentTouch(TouchInput ev) {
+        int index = 0;
+        if (mActivePointerId != INVALID_POINTER) {
+            index = ev.findPointerIndex(mActivePointerId);
+            index = index == -1 ? 0 : index;
+        }
+
+        return mHost.isContentTouch((int) ev.getX(index), (int) ev.getY(index));
+    }
+
+    private void onInterceptDown(TouchInput ev) {
+        final Host host = mHost;
+        mLastMotionX = mInitialMotionX = ev.getX(0);
+        mLastMotionY = mInitialMotionY = ev.getY(0);
+        final boolean allowDrag = host.onDownAllowDrag((int) mLastMotionX, (int) mLastMotionY);
+        mActivePointerId = ev.getPointerId(0);
+
+        if (allowDrag) {
+            final boolean menuVisible = host.isMenuVisible();
+            host.setDrawerState(menuVisible ? STATE_OPEN : STATE_CLOSED);
+            host.stopAnimation();
+            host.endPeek();
+
+            if (mOverlay && !host.isMenuVisible() && mInitialMotionX <= host.getPeekSize()) {
+                host.scheduleReveal();
+            }
+
+            mIsDragging = false;
+
+            if (!host.isMenuVisible() && host.getTouchMode() == TOUCH_MODE_BEZEL) {
+                host.prepareLayerTranslation();
+            }
+        }
+    }
+
+    /**
+     * Starts a drag once the touch has moved past the slop towards a position the drawer can be dragged from.
+     *
+     * @return false if the gesture is left to the children.
+     */
+    private boolean onInterceptMove(TouchInput ev) {
+        final Host host = mHost;
+        final int activePointerId = mActivePointerId;
+        if (activePointerId == INVALID_POINTER) {
+            // If we don't have a valid id, the touch down wasn't on content.
+            return true;
+        }
+
+        final int pointerIndex = ev.findPointerIndex(activePointerId);
+        if (pointerIndex == -1) {
+            mIsDragging = false;
+            mActivePointerId = INVALID_POINTER;
+            endDrag();
+            host.closeMenu();
+            return false;
+        }
+
+        final float x = ev.getX(pointerIndex);
+        final float dx = x - mLastMotionX;
+        final float y = ev.getY(pointerIndex);
+        final float dy = y - mLastMotionY;
+        final int touchSlop = host.getTouchSlop();
+
+        if (mOverlay && (Math.abs(dx) >= touchSlop || Math.abs(dy) >= touchSlop)) {
+            host.cancelReveal();
+            host.endPeek();
+        }
+
+        if (host.checkTouchSlop(dx, dy)) {
+            if ((host.getTouchMode() == TOUCH_MODE_FULLSCREEN || host.isMenuVisible())
+                    && host.canChildrenScroll((int) dx, (int) dy, (int) x, (int) y)) {
+                endDrag(); // Release the velocity tracker
+                host.requestDisallowInterceptTouchEvent();
+                return false;
+            }
+
+            final boolean allowDrag = host.onMoveAllowDrag((int) x, (int) y, dx, dy);
+
+            if (allowDrag) {
+                if (mOverlay) {
+                    host.endPeek();
+                    host.stopAnimation();
+                }
+                host.setDrawerState(STATE_DRAGGING);
+                mIsDragging = true;
+                mLastMotionX = x;
+                mLastMotionY = y;
+            }
+        } else if (Math.abs(dx) > touchSlop || Math.abs(dy) > touchSlop) {
+            // The touch is moving along the other axis, and won't drag the drawer.
+            host.cancelLayerTranslation();
+        }
+
+        return true;
+    }
+
+    public boolean onTouchEvent(TouchInput ev) {
+        final Host host = mHost;
+        if (!host.isMenuVisible() && !mIsDragging && host.getTouchMode() == TOUCH_MODE_NONE) {
+            return false;
+        }
+        final int action = ev.getActionMasked();
+
+        host.addMovement(ev);
+
+        switch (action) {
+            case TouchEvent.ACTION_DOWN: {
+                mLastMotionX = mInitialMotionX = ev.getX(0);
+                mLastMotionY = mInitialMotionY = ev.getY(0);
+                final boolean allowDrag = host.onDownAllowDrag((int) mLastMotionX, (int) mLastMotionY);
+
+                mActivePointerId = ev.getPointerId(0);
+
+                if (allowDrag) {
+                    host.stopAnimation();
+                    host.endPeek();
+
+                    if (mOverlay && !host.isMenuVisible() && mLastMotionX <= host.getPeekSize()) {
+                        host.scheduleReveal();
+                    }
+
+                    if (!host.isMenuVisible() && host.getTouchMode() == TOUCH_MODE_BEZEL) {
+                        host.prepareLayerTranslation();
+                    }
+                }
+                break;
+            }
+
+            case TouchEvent.ACTION_MOVE: {
+                final int pointerIndex = ev.findPointerIndex(mActivePointerId);
+                if (pointerIndex == -1) {
+                    mIsDragging = false;
+                    mActivePointerId = INVALID_POINTER;
+                    endDrag();
+                    host.closeMenu();
+                    return false;
+                }
+
+                if (!mIsDragging) {
+                    final float x = ev.getX(pointerIndex);
+                    final float dx = x - mLastMotionX;
+                    final float y = ev.getY(pointerIndex);
+                    final float dy = y - mLastMotionY;
+
+                    if (host.checkTouchSlop(dx, dy)) {
+                        final boolean allowDrag = host.onMoveAllowDrag((int) x, (int) y, dx, dy);
+
+                        if (allowDrag) {
+                            if (mOverlay) {
+                                host.endPeek();
+                                host.stopAnimation();
+                            }
+                            host.setDrawerState(STATE_DRAGGING);
+                            mIsDragging = true;
+                            mLastMotionX = x;
+                            mLastMotionY = y;
+                        } else {
+                            mInitialMotionX = x;
+                            mInitialMotionY = y;
+                        }
+                    }
+                }
+
+                if (mIsDragging) {
+                    host.startLayerTranslation();
+
+                    final float x = ev.getX(pointerIndex);
+                    final float dx = x - mLastMotionX;
+                    final float y = ev.getY(pointerIndex);
+                    final float dy = y - mLastMotionY;
+
+                    mLastMotionX = x;
+                    mLastMotionY = y;
+                    host.onMoveEvent(dx, dy);
+                }
+                break;
+            }
+
+            case TouchEvent.ACTION_CANCEL:
+            case TouchEvent.ACTION_UP: {
+                if (mOverlay) host.cancelReveal();
+                int index = ev.findPointerIndex(mActivePointerId);
+                index = index == -1 ? 0 : index;
+                host.onUpEvent((int) ev.getX(index), (int) ev.getY(index));
+                host.cancelLayerTranslation();
+                mActivePointerId = INVALID_POINTER;
+                mIsDragging = false;
+                break;
+            }
+
+            case TouchEvent.ACTION_POINTER_DOWN: {
+                final int index = ev.getActionIndex();
+                mLastMotionX = ev.getX(index);
+                mLastMotionY = ev.getY(index);
+                mActivePointerId = ev.getPointerId(index);
+                break;
+            }
+
+            case TouchEvent.ACTION_POINTER_UP:
+                onPointerUp(ev);
+                mLastMotionX = ev.getX(ev.findPointerIndex(mActivePointerId));
+                mLastMotionY = ev.getY(ev.findPointerIndex(mActivePointerId));
+                break;
+        }
+
+        return true;
+    }
+
+    /**
+     * Decides on {@code ACTION_DOWN} whether a gesture can never involve the drawer. The remaining events of a
+     * rejected gesture are passed straight through to the children.
+     *
+     * @param x X coordinate of the touch.
+     * @param y Y coordinate of the touch.
+     * @return true if the gesture can not drag or otherwise affect the drawer.
+     */
+    private boolean isGestureRejected(int x, int y) {
+        final Host host = mHost;
+        if (host.isMenuVisible() || host.isPeeking() || host.getDrawerState() != STATE_CLOSED) {
+            return false;
+        }
+
+        switch (host.getTouchMode()) {
+            case TOUCH_MODE_NONE:
+                return true;
+
+            case TOUCH_MODE_BEZEL:
+                return !host.getEdge().isWithin(x, y, host.getTouchSize(), host.getWidth(), host.getHeight());
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The default of {@link Host#checkTouchSlop(float, float)}.
+     */
+    public boolean checkTouchSlop(float dx, float dy) {
+        final Host host = mHost;
+        return host.getEdge().checkTouchSlop(dx, dy, host.getTouchSlop());
+    }
+
+    /**
+     * The default of {@link Host#isCloseEnough()}.
+     */
+    public boolean isCloseEnough() {
+        return Math.abs(mHost.getOffsetPixels()) <= mHost.getCloseEnough();
+    }
+
+    /**
+     * The default of {@link Host#onDownAllowDrag(int, int)}, which decides from the initial position of the touch.
+     */
+    public boolean onDownAllowDrag(int x, int y) {
+        final Host host = mHost;
+        final Edge edge = host.getEdge();
+        final float initialMotion = edge.axis(mInitialMotionX, mInitialMotionY);
+        final float depth = edge.depth(initialMotion, host.getWidth(), host.getHeight());
+        final float offset = Math.abs(host.getOffsetPixels());
+
+        if (!host.isMenuVisible()) {
+            return depth <= host.getTouchSize();
+        }
+
+        // The overlay menu is dragged, the sliding drawer is dragged by the content.
+        return mOverlay ? depth <= offset : depth >= offset;
+    }
+
+    /**
+     * The default of {@link Host#onMoveAllowDrag(int, int, float, float)}.
+     */
+    public boolean onMoveAllowDrag(int x, int y, float dx, float dy) {
+        final Host host = mHost;
+        final boolean menuVisible = host.isMenuVisible();
+        if (mOverlay && menuVisible && host.getTouchMode() == TOUCH_MODE_FULLSCREEN) {
+            return true;
+        }
+
+        final Edge edge = host.getEdge();
+        final int width = host.getWidth();
+        final int height = host.getHeight();
+        final float offset = Math.abs(host.getOffsetPixels());
+        final float initialMotion = edge.axis(mInitialMotionX, mInitialMotionY);
+        final float initialDepth = edge.depth(initialMotion, width, height);
+
+        final float depth = edge.depth(edge.axis(x, y), width, height);
+
+        if (!menuVisible) {
+            // Drawer closed
+            return initialDepth <= host.getTouchSize() && edge.isOpening(edge.axis(dx, dy));
+        }
+
+        if (mOverlay) {
+            return depth <= offset // Drawer open
+                    || offset <= host.getPeekSize(); // Drawer revealed
+        }
+
+        return depth >= offset;
+    }
+
+    /**
+     * The default of {@link Host#onMoveEvent(float, float)}, which moves the drawer by the delta along the axis.
+     */
+    public void onMoveEvent(float dx, float dy) {
+        final Host host = mHost;
+        final Edge edge = host.getEdge();
+        host.setOffsetPixels(edge.clampOffset(host.getOffsetPixels() + edge.axis(dx, dy), host.getMenuSize()));
+    }
+
+    /**
+     * The default of {@link Host#onUpEvent(int, int)}. A drag is settled with the velocity of the pointer, and a tap
+     * on the content closes the visible menu.
+     */
+    public void onUpEvent(int x, int y) {
+        final Host host = mHost;
+        final Edge edge = host.getEdge();
+        final int offsetPixels = (int) host.getOffsetPixels();
+
+        if (mIsDragging) {
+            final int initialVelocity = (int) host.getVelocity(mActivePointerId);
+            if (edge.isHorizontal()) {
+                mLastMotionX = x;
+            } else {
+                mLastMotionY = y;
+            }
+            host.animateOffsetTo(edge.settleOffset(initialVelocity, host.getMenuSize()), initialVelocity);
+
+            // Close the menu when content is clicked while the menu is visible.
+        } else if (host.isMenuVisible() && (mOverlay
+                || edge.depth(edge.axis(x, y), host.getWidth(), host.getHeight()) > Math.abs(offsetPixels))) {
+            host.closeMenu();
+        }
+    }
+
+    private void onPointerUp(TouchInput ev) {
+        final int pointerIndex = ev.getActionIndex();
+        final int pointerId = ev.getPointerId(pointerIndex);
+        if (pointerId == mActivePointerId) {
+            final int newPointerIndex = pointerIndex == 0 ? 1 : 0;
+            mLastMotionX = ev.getX(newPointerIndex);
+            mActivePointerId = ev.getPointerId(newPointerIndex);
+            mHost.clearMovements();
+        }
+    }
+}
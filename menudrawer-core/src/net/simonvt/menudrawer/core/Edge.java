@@ -0,0 +1,186 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * The geometry of the edge a drawer is attached to.
+ * <p/>
+ * Offsets are signed along the axis of the edge: positive when the menu opens towards larger coordinates
+ * ({@link #LEFT} and {@link #TOP}) and negative otherwise.
+ */
+public enum Edge {
+    LEFT(true, 1, false),
+
+    TOP(false, 1, false),
+
+    RIGHT(true, -1, true),
+
+    BOTTOM(false, -1, false);
+
+    private final boolean mHorizontal;
+
+    private final int mSign;
+
+    /**
+     * Whether a drawer released without velocity settles open, which only a right drawer has always done.
+     */
+    private final boolean mSettleOpenAtRest;
+
+    Edge(boolean horizontal, int sign, boolean settleOpenAtRest) {
+        mHorizontal = horizontal;
+        mSign = sign;
+        mSettleOpenAtRest = settleOpenAtRest;
+    }
+
+    /**
+     * Returns whether the drawer is dragged along the x axis.
+     */
+    public boolean isHorizontal() {
+        return mHorizontal;
+    }
+
+    /**
+     * Returns the sign of the offset of an open drawer.
+     */
+    public int sign() {
+        return mSign;
+    }
+
+    /**
+     * Returns the component of a point or vector along the axis of the edge.
+     */
+    public float axis(float x, float y) {
+        return mHorizontal ? x : y;
+    }
+
+    /**
+     * Returns the component of a point or vector along the axis of the edge.
+     */
+    public int axis(int x, int y) {
+        return mHorizontal ? x : y;
+    }
+
+    /**
+     * Returns the component of a point or vector across the axis of the edge.
+     */
+    public float cross(float x, float y) {
+        return mHorizontal ? y : x;
+    }
+
+    /**
+     * Returns the size of a view along the axis of the edge.
+     */
+    public int size(int width, int height) {
+        return mHorizontal ? width : height;
+    }
+
+    /**
+     * Returns the coordinate of the edge in a view of the given size.
+     */
+    public int edge(int width, int height) {
+        return mSign > 0 ? 0 : size(width, height);
+    }
+
+    /**
+     * Returns the coordinate of the edge opposite of this edge in a view of the given size.
+     */
+    public int opposite(int width, int height) {
+        return mSign > 0 ? size(width, height) : 0;
+    }
+
+    /**
+     * Returns the distance from the edge to a coordinate along the axis, positive inside the view.
+     */
+    public float depth(float coordinate, int width, int height) {
+        return (coordinate - edge(width, height)) * mSign;
+    }
+
+    /**
+     * Returns whether a point lies within the given distance from the edge.
+     */
+    public boolean isWithin(float x, float y, float distance, int width, int height) {
+        return depth(axis(x, y), width, height) <= distance;
+    }
+
+    /**
+     * Returns whether a coordinate along the axis lies further away from the edge than the given boundary.
+     */
+    public boolean isBeyond(float coordinate, int boundary) {
+        return (coordinate - boundary) * mSign > 0;
+    }
+
+    /**
+     * Returns whether a movement along the axis moves towards the open position.
+     */
+    public boolean isOpening(float delta) {
+        return delta * mSign > 0;
+    }
+
+    /**
+     * Returns the offset of a drawer that is open with the given menu size.
+     */
+    public int openOffset(int menuSize) {
+        return mSign * menuSize;
+    }
+
+    /**
+     * Clamps an offset to the range between the closed and the open drawer.
+     */
+    public float clampOffset(float offset, int menuSize) {
+        if (mSign > 0) {
+            return Math.min(Math.max(offset, 0), menuSize);
+        }
+
+        return Math.max(Math.min(offset, 0), -menuSize);
+    }
+
+    /**
+     * Returns the offset a released drawer settles at, given the velocity along the axis it was released with. A drawer
+     * released without velocity closes, except for a {@link #RIGHT} drawer which opens.
+     */
+    public int settleOffset(float velocity, int menuSize) {
+        final boolean open = velocity == 0 ? mSettleOpenAtRest : isOpening(velocity);
+        return open ? openOffset(menuSize) : 0;
+    }
+
+    /**
+     * Returns whether a movement is larger than the touch slop, and more along the axis than across it.
+     */
+    public boolean checkTouchSlop(float dx, float dy, int touchSlop) {
+        final float along = Math.abs(axis(dx, dy));
+        return along > touchSlop && along > Math.abs(cross(dx, dy));
+    }
+
+    /**
+     * Returns the left side of the band between two coordinates along the axis.
+     */
+    public int bandLeft(int from, int to) {
+        return mHorizontal ? Math.min(from, to) : 0;
+    }
+
+    /**
+     * Returns the top side of the band between two coordinates along the axis.
+     */
+    public int bandTop(int from, int to) {
+        return mHorizontal ? 0 : Math.min(from, to);
+    }
+
+    /**
+     * Returns the right side of the band between two coordinates along the axis, in a view of the given width.
+     */
+    public int bandRight(int from, int to, int width) {
+        return mHorizontal ? Math.max(from, to) : width;
+    }
+
+    /**
+     * Returns the bottom side of the band between two coordinates along the axis, in a view of the given height.
+     */
+    public int bandBottom(int from, int to, int height) {
+        return mHorizontal ? height : Math.max(from, to);
+    }
+
+    /**
+     * Sets the bounds to the band between two coordinates along the axis, filling the view across it.
+     */
+    public void setBand(Bounds bounds, int from, int to, int width, int height) {
+        bounds.set(bandLeft(from, to), bandTop(from, to), bandRight(from, to, width), bandBottom(from, to, height));
+    }
+}
@@ -14,10 +14,7 @@
  * limitations under the License.
  */
 
-package net.simonvt.menudrawer;
-
-import android.view.animation.AnimationUtils;
-import android.view.animation.Interpolator;
+package net.simonvt.menudrawer.core;
 
 /**
  * This class encapsulates scrolling.  The duration of the scroll
@@ -26,7 +23,7 @@ import android.view.animation.Interpolator;
  * automatically moved to its final stage and computeScrollOffset()
  * will always return false to indicate that scrolling is over.
  */
-class FloatScroller {
+public class FloatScroller {
 
     private float mStart;
     private float mFinal;
@@ -38,15 +35,24 @@ class FloatScroller {
     private float mDeltaX;
     private boolean mFinished;
     private Interpolator mInterpolator;
+    private final Clock mClock;
 
     /**
      * Create a Scroller with the specified interpolator. If the interpolator is
      * null, the default (viscous) interpolator will be used. Specify whether or
-     * not to support progressive "flywheel" behavior in flinging.
+     * not to support progressive "flywheel" behavior in flinging. The time is read from {@link Clock#SYSTEM}.
      */
     public FloatScroller(Interpolator interpolator) {
+        this(interpolator, Clock.SYSTEM);
+    }
+
+    /**
+     * Create a Scroller with the specified interpolator that reads the time from the given clock.
+     */
+    public FloatScroller(Interpolator interpolator, Clock clock) {
         mFinished = true;
         mInterpolator = interpolator;
+        mClock = clock;
     }
 
     /**
@@ -108,10 +114,11 @@ class FloatScroller {
             return false;
         }
 
-        int timePassed = (int) (AnimationUtils.currentAnimationTimeMillis() - mStartTime);
+        final long elapsed = Math.max(mClock.nanoTime() - mStartTime, 0);
+        int timePassed = (int) (elapsed / Clock.NANOS_PER_MS);
 
         if (timePassed < mDuration) {
-            float x = timePassed * mDurationReciprocal;
+            float x = elapsed * mDurationReciprocal;
             x = mInterpolator.getInterpolation(x);
             mCurr = mStart + x * mDeltaX;
 
@@ -123,13 +130,25 @@ class FloatScroller {
     }
 
     public void startScroll(float start, float delta, int duration) {
+        startScroll(start, delta, duration, mClock.nanoTime());
+    }
+
+    /**
+     * Start scrolling at the given time.
+     *
+     * @param start     The start value.
+     * @param delta     The distance to travel.
+     * @param duration  Duration of the scroll in milliseconds.
+     * @param startTime The time the scroll starts at, in nanoseconds. See {@link Clock}.
+     */
+    public void startScroll(float start, float delta, int duration, long startTime) {
         mFinished = false;
         mDuration = duration;
-        mStartTime = AnimationUtils.currentAnimationTimeMillis();
+        mStartTime = startTime;
         mStart = start;
         mFinal = start + delta;
         mDeltaX = delta;
-        mDurationReciprocal = 1.0f / (float) mDuration;
+        mDurationReciprocal = 1.0f / ((float) mDuration * Clock.NANOS_PER_MS);
     }
 
     /**
@@ -154,7 +173,7 @@ class FloatScroller {
     public void extendDuration(int extend) {
         int passed = timePassed();
         mDuration = passed + extend;
-        mDurationReciprocal = 1.0f / mDuration;
+        mDurationReciprocal = 1.0f / ((float) mDuration * Clock.NANOS_PER_MS);
         mFinished = false;
     }
 
@@ -164,7 +183,7 @@ class FloatScroller {
      * @return The elapsed time in milliseconds.
      */
     public int timePassed() {
-        return (int) (AnimationUtils.currentAnimationTimeMillis() - mStartTime);
+        return (int) ((mClock.nanoTime() - mStartTime) / Clock.NANOS_PER_MS);
     }
 
     public void setFinal(float newVal) {
@@ -0,0 +1,56 @@
+package net.simonvt.menudrawer.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A recorded gesture: the setup of the drawer, the touch events it received and the state it ended up in.
+ *
+ * @see TraceWriter
+ * @see TraceReader
+ */
+public final class GestureTrace {
+
+    /**
+     * Final state of a trace whose recording stopped before the drawer settled.
+     */
+    public static final int STATE_UNKNOWN = -1;
+
+    private final TraceHeader mHeader;
+
+    private final List<TouchEvent> mEvents;
+
+    private final int mFinalState;
+
+    private final float mFinalOffset;
+
+    public GestureTrace(TraceHeader header, List<TouchEvent> events, int finalState, float finalOffset) {
+        mHeader = header;
+        mEvents = Collections.unmodifiableList(events);
+        mFinalState = finalState;
+        mFinalOffset = finalOffset;
+    }
+
+    public TraceHeader getHeader() {
+        return mHeader;
+    }
+
+    public List<TouchEvent> getEvents() {
+        return mEvents;
+    }
+
+    /**
+     * The state the drawer settled in on the recording device, one of the {@code MenuDrawer.STATE_*} constants or
+     * {@link #STATE_UNKNOWN}.
+     */
+    public int getFinalState() {
+        return mFinalState;
+    }
+
+    /**
+     * The offset of the drawer when the recording stopped.
+     */
+    public float getFinalOffset() {
+        return mFinalOffset;
+    }
+}
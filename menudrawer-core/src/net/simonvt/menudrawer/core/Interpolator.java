@@ -0,0 +1,16 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * Defines the rate of change of an animation. Same contract as {@code android.view.animation.Interpolator}.
+ */
+public interface Interpolator {
+
+    /**
+     * Maps a value representing the elapsed fraction of an animation to a value that represents the interpolated
+     * fraction.
+     *
+     * @param input A value between 0 and 1.0 indicating the current point in the animation.
+     * @return The interpolation value.
+     */
+    float getInterpolation(float input);
+}
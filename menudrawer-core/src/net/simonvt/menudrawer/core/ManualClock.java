@@ -0,0 +1,50 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * {@link Clock} that only moves when told to. Lets the scrollers be stepped frame by frame, e.g. in tests and
+ * benchmarks.
+ */
+public final class ManualClock implements Clock {
+
+    private long mTime;
+
+    public ManualClock() {
+        this(0L);
+    }
+
+    public ManualClock(long time) {
+        mTime = time;
+    }
+
+    @Override
+    public long nanoTime() {
+        return mTime;
+    }
+
+    /**
+     * Sets the current time.
+     *
+     * @param time The time in nanoseconds.
+     */
+    public void setTime(long time) {
+        mTime = time;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param nanos The number of nanoseconds to move the clock forward by.
+     */
+    public void advance(long nanos) {
+        mTime += nanos;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param millis The number of milliseconds to move the clock forward by.
+     */
+    public void advanceMillis(long millis) {
+        mTime += millis * NANOS_PER_MS;
+    }
+}
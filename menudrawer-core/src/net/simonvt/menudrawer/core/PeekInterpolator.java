@@ -1,8 +1,6 @@
-package net.simonvt.menudrawer;
+package net.simonvt.menudrawer.core;
 
-import android.view.animation.Interpolator;
-
-class PeekInterpolator implements Interpolator {
+public class PeekInterpolator implements Interpolator {
 
     private static final String TAG = "PeekInterpolator";
 
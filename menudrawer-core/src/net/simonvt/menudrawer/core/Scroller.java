@@ -14,16 +14,7 @@
  * limitations under the License.
  */
 
-package net.simonvt.menudrawer;
-
-import android.content.Context;
-import android.hardware.SensorManager;
-import android.os.Build;
-import android.util.FloatMath;
-import android.view.ViewConfiguration;
-import android.view.animation.AnimationUtils;
-import android.view.animation.Interpolator;
-
+package net.simonvt.menudrawer.core;
 
 /**
  * This class encapsulates scrolling.  The duration of the scroll
@@ -32,7 +23,7 @@ import android.view.animation.Interpolator;
  * automatically moved to its final stage and computeScrollOffset()
  * will always return false to indicate that scrolling is over.
  */
-class Scroller  {
+public class Scroller  {
     private int mMode;
 
     private int mStartX;
@@ -58,7 +49,14 @@ class Scroller  {
 
     private float mVelocity;
 
+    private final Clock mClock;
+
     private static final int DEFAULT_DURATION = 250;
+
+    /**
+     * Standard gravity, as in {@code SensorManager.GRAVITY_EARTH}.
+     */
+    private static final float GRAVITY_EARTH = 9.80665f;
     private static final int SCROLL_MODE = 0;
     private static final int FLING_MODE = 1;
 
@@ -102,38 +100,27 @@ class Scroller  {
     private static float sViscousFluidNormalize;
 
     /**
-     * Create a Scroller with the default duration and interpolator.
-     */
-    public Scroller(Context context) {
-        this(context, null);
-    }
-
-    /**
-     * Create a Scroller with the specified interpolator. If the interpolator is
-     * null, the default (viscous) interpolator will be used. "Flywheel" behavior will
-     * be in effect for apps targeting Honeycomb or newer.
-     */
-    public Scroller(Context context, Interpolator interpolator) {
-        this(context, interpolator,
-                context.getApplicationInfo().targetSdkVersion >= Build.VERSION_CODES.HONEYCOMB);
-    }
-
-    /**
-     * Create a Scroller with the specified interpolator. If the interpolator is
-     * null, the default (viscous) interpolator will be used. Specify whether or
-     * not to support progressive "flywheel" behavior in flinging.
+     * Create a Scroller. On Android the number of pixels per inch is the display density times 160, and the
+     * friction is {@code ViewConfiguration.getScrollFriction()}.
+     *
+     * @param interpolator The interpolator, or null to use the default (viscous) interpolator.
+     * @param ppi          The number of pixels per inch, used when flinging.
+     * @param friction     The friction applied to flings.
+     * @param flywheel     Whether to support progressive "flywheel" behavior in flinging.
+     * @param clock        The clock the scroller reads the time from.
      */
-    public Scroller(Context context, Interpolator interpolator, boolean flywheel) {
+    public Scroller(Interpolator interpolator, float ppi, float friction, boolean flywheel, Clock clock) {
         mFinished = true;
         mInterpolator = interpolator;
-        mPpi = context.getResources().getDisplayMetrics().density * 160.0f;
-        mDeceleration = computeDeceleration(ViewConfiguration.getScrollFriction());
+        mPpi = ppi;
+        mDeceleration = computeDeceleration(friction);
         mFlywheel = flywheel;
+        mClock = clock;
     }
 
     /**
      * The amount of friction applied to flings. The default value
-     * is {@link android.view.ViewConfiguration#getScrollFriction}.
+     * is {@code ViewConfiguration.getScrollFriction()}.
      *
      * @param friction A scalar dimension-less value representing the coefficient of
      *         friction.
@@ -143,10 +130,10 @@ class Scroller  {
     }
 
     private float computeDeceleration(float friction) {
-        return SensorManager.GRAVITY_EARTH   // g (m/s^2)
-                      * 39.37f               // inch/meter
-                      * mPpi                 // pixels per inch
-                      * friction;
+        return GRAVITY_EARTH   // g (m/s^2)
+                * 39.37f               // inch/meter
+                * mPpi                 // pixels per inch
+                * friction;
     }
 
     /**
@@ -251,12 +238,13 @@ class Scroller  {
             return false;
         }
 
-        int timePassed = (int) (AnimationUtils.currentAnimationTimeMillis() - mStartTime);
+        final long elapsed = Math.max(mClock.nanoTime() - mStartTime, 0);
+        int timePassed = (int) (elapsed / Clock.NANOS_PER_MS);
 
         if (timePassed < mDuration) {
             switch (mMode) {
             case SCROLL_MODE:
-                float x = timePassed * mDurationReciprocal;
+                float x = elapsed * mDurationReciprocal;
 
                 if (mInterpolator == null)
                     x = viscousFluid(x);
@@ -331,17 +319,35 @@ class Scroller  {
      * @param duration Duration of the scroll in milliseconds.
      */
     public void startScroll(int startX, int startY, int dx, int dy, int duration) {
+        startScroll(startX, startY, dx, dy, duration, mClock.nanoTime());
+    }
+
+    /**
+     * Start scrolling by providing a starting point, the distance to travel and the time the scroll starts at.
+     *
+     * @param startX Starting horizontal scroll offset in pixels. Positive
+     *        numbers will scroll the content to the left.
+     * @param startY Starting vertical scroll offset in pixels. Positive numbers
+     *        will scroll the content up.
+     * @param dx Horizontal distance to travel. Positive numbers will scroll the
+     *        content to the left.
+     * @param dy Vertical distance to travel. Positive numbers will scroll the
+     *        content up.
+     * @param duration Duration of the scroll in milliseconds.
+     * @param startTime The time the scroll starts at, in nanoseconds. See {@link Clock}.
+     */
+    public void startScroll(int startX, int startY, int dx, int dy, int duration, long startTime) {
         mMode = SCROLL_MODE;
         mFinished = false;
         mDuration = duration;
-        mStartTime = AnimationUtils.currentAnimationTimeMillis();
+        mStartTime = startTime;
         mStartX = startX;
         mStartY = startY;
         mFinalX = startX + dx;
         mFinalY = startY + dy;
         mDeltaX = dx;
         mDeltaY = dy;
-        mDurationReciprocal = 1.0f / (float) mDuration;
+        mDurationReciprocal = 1.0f / ((float) mDuration * Clock.NANOS_PER_MS);
     }
 
     /**
@@ -371,7 +377,7 @@ class Scroller  {
 
             float dx = (float) (mFinalX - mStartX);
             float dy = (float) (mFinalY - mStartY);
-            float hyp = FloatMath.sqrt(dx * dx + dy * dy);
+            float hyp = (float) Math.sqrt(dx * dx + dy * dy);
 
             float ndx = dx / hyp;
             float ndy = dy / hyp;
@@ -388,12 +394,12 @@ class Scroller  {
         mMode = FLING_MODE;
         mFinished = false;
 
-        float velocity = FloatMath.sqrt(velocityX * velocityX + velocityY * velocityY);
+        float velocity = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
 
         mVelocity = velocity;
         final double l = Math.log(START_TENSION * velocity / ALPHA);
         mDuration = (int) (1000.0 * Math.exp(l / (DECELERATION_RATE - 1.0)));
-        mStartTime = AnimationUtils.currentAnimationTimeMillis();
+        mStartTime = mClock.nanoTime();
         mStartX = startX;
         mStartY = startY;
 
@@ -456,7 +462,7 @@ class Scroller  {
     public void extendDuration(int extend) {
         int passed = timePassed();
         mDuration = passed + extend;
-        mDurationReciprocal = 1.0f / mDuration;
+        mDurationReciprocal = 1.0f / ((float) mDuration * Clock.NANOS_PER_MS);
         mFinished = false;
     }
 
@@ -466,7 +472,7 @@ class Scroller  {
      * @return The elapsed time in milliseconds.
      */
     public int timePassed() {
-        return (int) (AnimationUtils.currentAnimationTimeMillis() - mStartTime);
+        return (int) ((mClock.nanoTime() - mStartTime) / Clock.NANOS_PER_MS);
     }
 
     /**
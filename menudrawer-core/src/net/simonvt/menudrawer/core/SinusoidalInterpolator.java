@@ -1,12 +1,10 @@
-package net.simonvt.menudrawer;
-
-import android.view.animation.Interpolator;
+package net.simonvt.menudrawer.core;
 
 /**
  * Interpolator which, when drawn from 0 to 1, looks like half a sine-wave. Used for smoother opening/closing when
  * peeking at the drawer.
  */
-class SinusoidalInterpolator implements Interpolator {
+public class SinusoidalInterpolator implements Interpolator {
 
     @Override
     public float getInterpolation(float input) {
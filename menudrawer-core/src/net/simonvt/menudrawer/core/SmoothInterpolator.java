@@ -1,8 +1,6 @@
-package net.simonvt.menudrawer;
+package net.simonvt.menudrawer.core;
 
-import android.view.animation.Interpolator;
-
-class SmoothInterpolator implements Interpolator {
+public class SmoothInterpolator implements Interpolator {
 
     @Override
     public float getInterpolation(float t) {
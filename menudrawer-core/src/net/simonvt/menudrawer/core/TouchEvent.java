@@ -0,0 +1,118 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * A recorded touch event. Mirrors the parts of {@code android.view.MotionEvent} the drawers read, including the
+ * historical samples batched into move events.
+ * <p/>
+ * Coordinates are stored per sample, pointer by pointer: sample {@code h} of pointer {@code p} is at index
+ * {@code h * pointerCount + p}, with the current sample last.
+ */
+public final class TouchEvent implements TouchInput {
+
+    public static final int ACTION_DOWN = 0;
+
+    public static final int ACTION_UP = 1;
+
+    public static final int ACTION_MOVE = 2;
+
+    public static final int ACTION_CANCEL = 3;
+
+    public static final int ACTION_POINTER_DOWN = 5;
+
+    public static final int ACTION_POINTER_UP = 6;
+
+    private final int mAction;
+
+    private final int mActionIndex;
+
+    private final int[] mPointerIds;
+
+    private final long[] mTimes;
+
+    private final float[] mX;
+
+    private final float[] mY;
+
+    /**
+     * @param action      The masked action.
+     * @param actionIndex Index of the pointer that went up or down.
+     * @param pointerIds  Id of each pointer.
+     * @param times       Time of each sample in milliseconds, historical samples first.
+     * @param x           X coordinate of each sample.
+     * @param y           Y coordinate of each sample.
+     */
+    public TouchEvent(int action, int actionIndex, int[] pointerIds, long[] times, float[] x, float[] y) {
+        if (pointerIds.length == 0 || times.length == 0) {
+            throw new IllegalArgumentException("An event needs at least one pointer and one sample");
+        }
+        if (x.length != times.length * pointerIds.length || y.length != x.length) {
+            throw new IllegalArgumentException("Expected " + times.length * pointerIds.length + " coordinates");
+        }
+
+        mAction = action;
+        mActionIndex = actionIndex;
+        mPointerIds = pointerIds;
+        mTimes = times;
+        mX = x;
+        mY = y;
+    }
+
+    @Override
+    public int getActionMasked() {
+        return mAction;
+    }
+
+    @Override
+    public int getActionIndex() {
+        return mActionIndex;
+    }
+
+    @Override
+    public long getEventTime() {
+        return mTimes[mTimes.length - 1];
+    }
+
+    public int getPointerCount() {
+        return mPointerIds.length;
+    }
+
+    @Override
+    public int getPointerId(int pointerIndex) {
+        return mPointerIds[pointerIndex];
+    }
+
+    @Override
+    public int findPointerIndex(int pointerId) {
+        for (int i = 0; i < mPointerIds.length; i++) {
+            if (mPointerIds[i] == pointerId) return i;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public float getX(int pointerIndex) {
+        return mX[(mTimes.length - 1) * mPointerIds.length + pointerIndex];
+    }
+
+    @Override
+    public float getY(int pointerIndex) {
+        return mY[(mTimes.length - 1) * mPointerIds.length + pointerIndex];
+    }
+
+    public int getHistorySize() {
+        return mTimes.length - 1;
+    }
+
+    public long getHistoricalEventTime(int pos) {
+        return mTimes[pos];
+    }
+
+    public float getHistoricalX(int pointerIndex, int pos) {
+        return mX[pos * mPointerIds.length + pointerIndex];
+    }
+
+    public float getHistoricalY(int pointerIndex, int pos) {
+        return mY[pos * mPointerIds.length + pointerIndex];
+    }
+}
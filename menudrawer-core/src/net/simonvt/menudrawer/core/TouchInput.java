@@ -0,0 +1,34 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * The parts of a touch event {@link DrawerTouchHandler} reads. Implemented by {@link TouchEvent} for recorded events,
+ * and by an adapter around {@code android.view.MotionEvent} in the drawers.
+ */
+public interface TouchInput {
+
+    /**
+     * Returns the masked action, one of the {@code TouchEvent.ACTION_*} constants.
+     */
+    int getActionMasked();
+
+    /**
+     * Returns the index of the pointer that went up or down.
+     */
+    int getActionIndex();
+
+    /**
+     * Returns the time of the event in milliseconds.
+     */
+    long getEventTime();
+
+    int getPointerId(int pointerIndex);
+
+    /**
+     * Returns the index of the pointer with the given id, or -1 if it isn't part of the event.
+     */
+    int findPointerIndex(int pointerId);
+
+    float getX(int pointerIndex);
+
+    float getY(int pointerIndex);
+}
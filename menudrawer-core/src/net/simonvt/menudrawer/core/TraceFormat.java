@@ -0,0 +1,26 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * Constants of the gesture trace file format.
+ * <p/>
+ * A trace starts with {@link #MAGIC}, {@link #VERSION} and the {@link TraceHeader}, followed by records that each
+ * start with a tag byte. {@link #TAG_EVENT} records hold a {@link TouchEvent}, with times stored in milliseconds
+ * relative to the first sample of the trace. A {@link #TAG_END} record holds the final state and offset of the drawer.
+ * A trace without an end record was cut short and is read with {@link GestureTrace#STATE_UNKNOWN}.
+ */
+final class TraceFormat {
+
+    /**
+     * "MDTR".
+     */
+    static final int MAGIC = 0x4D445452;
+
+    static final int VERSION = 1;
+
+    static final int TAG_EVENT = 1;
+
+    static final int TAG_END = 2;
+
+    private TraceFormat() {
+    }
+}
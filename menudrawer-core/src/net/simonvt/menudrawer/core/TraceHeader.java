@@ -0,0 +1,64 @@
+package net.simonvt.menudrawer.core;
+
+/**
+ * The setup of the drawer a {@link GestureTrace} was recorded on. Values are in pixels, as measured on the recording
+ * device.
+ */
+public final class TraceHeader {
+
+    /**
+     * Size of the drawer.
+     */
+    public int width;
+
+    public int height;
+
+    /**
+     * The edge the menu was on, after resolving the layout direction.
+     */
+    public Edge edge = Edge.LEFT;
+
+    /**
+     * Whether the menu was overlaid on the content, instead of the content sliding to reveal it.
+     */
+    public boolean overlay;
+
+    public int menuSize;
+
+    /**
+     * The touch mode, one of the {@code MenuDrawer.TOUCH_MODE_*} constants.
+     */
+    public int touchMode;
+
+    /**
+     * Distance from the edge a drag must start within to open the drawer.
+     */
+    public int touchSize;
+
+    public int touchSlop;
+
+    /**
+     * Maximum fling velocity in pixels per second.
+     */
+    public int maxVelocity;
+
+    /**
+     * Maximum duration of the open/close animation in milliseconds.
+     */
+    public int maxAnimationDuration;
+
+    /**
+     * Offset below which the drawer is considered closed when touched.
+     */
+    public int closeEnough;
+
+    /**
+     * Size of the peeking overlay drawer, or 0 for the sliding drawer.
+     */
+    public int peekSize;
+
+    /**
+     * Offset of the drawer when the recording started.
+     */
+    public float initialOffset;
+}
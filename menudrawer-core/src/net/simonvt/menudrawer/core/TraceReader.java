@@ -0,0 +1,115 @@
+package net.simonvt.menudrawer.core;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads traces written by {@link TraceWriter}.
+ */
+public final class TraceReader {
+
+    private TraceReader() {
+    }
+
+    /**
+     * Reads a trace. The stream is not closed.
+     *
+     * @throws IOException If the stream is not a trace, or a version this reader doesn't know.
+     */
+    public static GestureTrace read(InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if (data.readInt() != TraceFormat.MAGIC) {
+            throw new IOException("Not a gesture trace");
+        }
+        final int version = data.readUnsignedByte();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException("Unsupported trace version: " + version);
+        }
+
+        final TraceHeader header = readHeader(data);
+        final List<TouchEvent> events = new ArrayList<TouchEvent>();
+
+        while (true) {
+            final int tag;
+            try {
+                tag = data.readUnsignedByte();
+            } catch (EOFException e) {
+                // The recording was cut short.
+                return new GestureTrace(header, events, GestureTrace.STATE_UNKNOWN, 0.0f);
+            }
+
+            switch (tag) {
+                case TraceFormat.TAG_EVENT:
+                    events.add(readEvent(data));
+                    break;
+
+                case TraceFormat.TAG_END:
+                    final int finalState = data.readByte();
+                    final float finalOffset = data.readFloat();
+                    return new GestureTrace(header, events, finalState, finalOffset);
+
+                default:
+                    throw new IOException("Unknown record: " + tag);
+            }
+        }
+    }
+
+    private static TraceHeader readHeader(DataInputStream data) throws IOException {
+        final TraceHeader header = new TraceHeader();
+        header.width = data.readInt();
+        header.height = data.readInt();
+
+        final int edge = data.readUnsignedByte();
+        if (edge >= Edge.values().length) {
+            throw new IOException("Unknown edge: " + edge);
+        }
+        header.edge = Edge.values()[edge];
+
+        header.overlay = data.readBoolean();
+        header.menuSize = data.readInt();
+        header.touchMode = data.readUnsignedByte();
+        header.touchSize = data.readInt();
+        header.touchSlop = data.readInt();
+        header.maxVelocity = data.readInt();
+        header.maxAnimationDuration = data.readInt();
+        header.closeEnough = data.readInt();
+        header.peekSize = data.readInt();
+        header.initialOffset = data.readFloat();
+        return header;
+    }
+
+    private static TouchEvent readEvent(DataInputStream data) throws IOException {
+        final int action = data.readUnsignedByte();
+        final int actionIndex = data.readUnsignedByte();
+
+        final int pointerCount = data.readUnsignedByte();
+        final int[] pointerIds = new int[pointerCount];
+        for (int p = 0; p < pointerCount; p++) {
+            pointerIds[p] = data.readUnsignedByte();
+        }
+
+        final int sampleCount = data.readUnsignedShort();
+        final long[] times = new long[sampleCount];
+        final float[] x = new float[sampleCount * pointerCount];
+        final float[] y = new float[sampleCount * pointerCount];
+        for (int h = 0; h < sampleCount; h++) {
+            times[h] = data.readInt();
+            for (int p = 0; p < pointerCount; p++) {
+                x[h * pointerCount + p] = data.readFloat();
+                y[h * pointerCount + p] = data.readFloat();
+            }
+        }
+
+        try {
+            return new TouchEvent(action, actionIndex, pointerIds, times, x, y);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed event: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.simonvt.menudrawer.core;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a {@link GestureTrace} event by event, so a gesture can be streamed to a file while it is being recorded.
+ *
+ * @see TraceReader
+ */
+public final class TraceWriter implements Closeable {
+
+    private final DataOutputStream mOut;
+
+    private long mStartTime = -1L;
+
+    private boolean mFinished;
+
+    public TraceWriter(OutputStream out, TraceHeader header) throws IOException {
+        mOut = new DataOutputStream(new BufferedOutputStream(out));
+
+        mOut.writeInt(TraceFormat.MAGIC);
+        mOut.writeByte(TraceFormat.VERSION);
+
+        mOut.writeInt(header.width);
+        mOut.writeInt(header.height);
+        mOut.writeByte(header.edge.ordinal());
+        mOut.writeBoolean(header.overlay);
+        mOut.writeInt(header.menuSize);
+        mOut.writeByte(header.touchMode);
+        mOut.writeInt(header.touchSize);
+        mOut.writeInt(header.touchSlop);
+        mOut.writeInt(header.maxVelocity);
+        mOut.writeInt(header.maxAnimationDuration);
+        mOut.writeInt(header.closeEnough);
+        mOut.writeInt(header.peekSize);
+        mOut.writeFloat(header.initialOffset);
+    }
+
+    public void write(TouchEvent event) throws IOException {
+        if (mFinished) {
+            throw new IllegalStateException("The trace has been finished");
+        }
+
+        final int pointerCount = event.getPointerCount();
+        final int historySize = event.getHistorySize();
+        if (mStartTime == -1L) {
+            mStartTime = historySize > 0 ? event.getHistoricalEventTime(0) : event.getEventTime();
+        }
+
+        mOut.writeByte(TraceFormat.TAG_EVENT);
+        mOut.writeByte(event.getActionMasked());
+        mOut.writeByte(event.getActionIndex());
+        mOut.writeByte(pointerCount);
+        for (int p = 0; p < pointerCount; p++) {
+            mOut.writeByte(event.getPointerId(p));
+        }
+
+        mOut.writeShort(historySize + 1);
+        for (int h = 0; h < historySize; h++) {
+            mOut.writeInt((int) (event.getHistoricalEventTime(h) - mStartTime));
+            for (int p = 0; p < pointerCount; p++) {
+                mOut.writeFloat(event.getHistoricalX(p, h));
+                mOut.writeFloat(event.getHistoricalY(p, h));
+            }
+        }
+
+        mOut.writeInt((int) (event.getEventTime() - mStartTime));
+        for (int p = 0; p < pointerCount; p++) {
+            mOut.writeFloat(event.getX(p));
+            mOut.writeFloat(event.getY(p));
+        }
+    }
+
+    /**
+     * Ends the trace with the state the drawer settled in.
+     *
+     * @param finalState  One of the {@code MenuDrawer.STATE_*} constants.
+     * @param finalOffset The offset of the drawer.
+     */
+    public void finish(int finalState, float finalOffset) throws IOException {
+        if (mFinished) {
+            throw new IllegalStateException("The trace has already been finished");
+        }
+
+        mOut.writeByte(TraceFormat.TAG_END);
+        mOut.writeByte(finalState);
+        mOut.writeFloat(finalOffset);
+        mOut.flush();
+        mFinished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mOut.close();
+    }
+}
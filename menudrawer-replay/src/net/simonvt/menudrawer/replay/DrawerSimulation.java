@@ -0,0 +1,449 @@
+package net.simonvt.menudrawer.replay;
+
+import net.simonvt.menudrawer.core.Clock;
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.Edge;
+import net.simonvt.menudrawer.core.GestureTrace;
+import net.simonvt.menudrawer.core.ManualClock;
+import net.simonvt.menudrawer.core.Scroller;
+import net.simonvt.menudrawer.core.SmoothInterpolator;
+import net.simonvt.menudrawer.core.TouchEvent;
+import net.simonvt.menudrawer.core.TouchInput;
+import net.simonvt.menudrawer.core.TraceHeader;
+
+import java.util.List;
+
+/**
+ * Replays a {@link GestureTrace} through the {@link DrawerTouchHandler} {@code SlidingDrawer} and
+ * {@code OverlayDrawer} handle their touch events with. The simulation is the host of the handler: it animates the
+ * drawer with the core scroller the drawers use, driven by a {@link ManualClock} with a frame at every vsync while the
+ * drawer is dragged or animating.
+ * <p/>
+ * Events are dispatched like {@code ViewGroup} does: they're offered to {@code onInterceptTouchEvent} until it
+ * intercepts the gesture, and then go to {@code onTouchEvent}. The content is assumed to consume the events that
+ * aren't intercepted, and to have no children that can scroll. Layers, peeking and drawing aren't modelled.
+ */
+final class DrawerSimulation implements DrawerTouchHandler.Host {
+
+    private static final long FRAME_INTERVAL = 1000 * Clock.NANOS_PER_MS / 60;
+
+    /**
+     * Time after the last event the drawer is given to settle.
+     */
+    private static final long MAX_SETTLE_TIME = 10000 * Clock.NANOS_PER_MS;
+
+    private static final long NO_REVEAL = -1L;
+
+    /**
+     * The events of the gesture go to the content.
+     */
+    private static final int TARGET_CONTENT = 0;
+
+    /**
+     * The drawer intercepted the gesture, the events go to its {@code onTouchEvent}.
+     */
+    private static final int TARGET_DRAWER = 1;
+
+    /**
+     * The drawer didn't handle the down event of a gesture it intercepted, the rest of the gesture is dropped.
+     */
+    private static final int TARGET_NONE = 2;
+
+    private final TraceHeader mHeader;
+
+    private final Edge mEdge;
+
+    private final ManualClock mClock = new ManualClock();
+
+    /**
+     * The drawers only use startScroll, so the values that only affect flings don't matter.
+     */
+    private final Scroller mScroller = new Scroller(new SmoothInterpolator(), 160.0f, 0.015f, true, mClock);
+
+    private final VelocityEstimator mVelocity = new VelocityEstimator();
+
+    private final DrawerTouchHandler mTouchHandler;
+
+    private final Timeline mTimeline = new Timeline();
+
+    private float mOffsetPixels;
+
+    private boolean mMenuVisible;
+
+    private int mDrawerState;
+
+    private boolean mAnimating;
+
+    private boolean mDirty;
+
+    private long mRevealTime = NO_REVEAL;
+
+    private int mTouchTarget = TARGET_CONTENT;
+
+    private boolean mDisallowIntercept;
+
+    private long mStartTime;
+
+    private long mNextFrameTime;
+
+    private int mFrameCount;
+
+    private long mSettleNanos;
+
+    private long mEventNanos;
+
+    DrawerSimulation(TraceHeader header) {
+        mHeader = header;
+        mEdge = header.edge;
+        mTouchHandler = new DrawerTouchHandler(this, header.overlay);
+
+        setOffsetPixels(header.initialOffset);
+        mDrawerState = mMenuVisible ? DrawerTouchHandler.STATE_OPEN : DrawerTouchHandler.STATE_CLOSED;
+        mDirty = false;
+    }
+
+    /**
+     * Replays the trace. A simulation can only replay a single trace.
+     */
+    ReplayResult replay(String name, GestureTrace trace) {
+        final List<TouchEvent> events = trace.getEvents();
+        if (!events.isEmpty()) {
+            final TouchEvent first = events.get(0);
+            final long firstTime = first.getHistorySize() > 0
+                    ? first.getHistoricalEventTime(0)
+                    : first.getEventTime();
+            mStartTime = firstTime * Clock.NANOS_PER_MS;
+            mClock.setTime(mStartTime);
+            mNextFrameTime = mStartTime + FRAME_INTERVAL;
+        }
+
+        for (TouchEvent event : events) {
+            final long eventTime = event.getEventTime() * Clock.NANOS_PER_MS;
+            runFramesUntil(eventTime);
+            mClock.setTime(eventTime);
+
+            final long start = System.nanoTime();
+            dispatchTouchEvent(event);
+            mEventNanos += System.nanoTime() - start;
+        }
+
+        final long start = System.nanoTime();
+        runFramesUntil(mClock.nanoTime() + MAX_SETTLE_TIME);
+        mSettleNanos = System.nanoTime() - start;
+
+        return new ReplayResult(name, events.size(), mFrameCount, mSettleNanos, mEventNanos,
+                mDrawerState, mOffsetPixels, trace.getFinalState(), trace.getFinalOffset(), mTimeline);
+    }
+
+    private void dispatchTouchEvent(TouchEvent ev) {
+        final int action = ev.getActionMasked();
+        if (action == TouchEvent.ACTION_DOWN) {
+            mTouchTarget = TARGET_CONTENT;
+            mDisallowIntercept = false;
+        }
+
+        if (mTouchTarget == TARGET_CONTENT) {
+            if (mDisallowIntercept || !mTouchHandler.onInterceptTouchEvent(ev)) {
+                return;
+            }
+
+            mTouchTarget = TARGET_DRAWER;
+            if (action != TouchEvent.ACTION_DOWN) {
+                // The content is sent a cancel, the drawer gets the events that follow.
+                return;
+            }
+        }
+
+        if (mTouchTarget == TARGET_DRAWER && !mTouchHandler.onTouchEvent(ev) && action == TouchEvent.ACTION_DOWN) {
+            mTouchTarget = TARGET_NONE;
+        }
+    }
+
+    private void runFramesUntil(long time) {
+        while (mNextFrameTime <= time) {
+            if (!mAnimating && !mDirty && mRevealTime == NO_REVEAL) {
+                // Nothing to draw, skip ahead to the first frame after the time.
+                final long frames = (time - mNextFrameTime) / FRAME_INTERVAL + 1;
+                mNextFrameTime += frames * FRAME_INTERVAL;
+                return;
+            }
+
+            mClock.setTime(mNextFrameTime);
+            frame();
+            mNextFrameTime += FRAME_INTERVAL;
+        }
+    }
+
+    private void frame() {
+        if (mRevealTime != NO_REVEAL && mClock.nanoTime() >= mRevealTime) {
+            mRevealTime = NO_REVEAL;
+            startAnimation(mEdge.openOffset(mHeader.peekSize), DrawerTouchHandler.REVEAL_DURATION);
+        }
+
+        if (mAnimating) {
+            if (mScroller.computeScrollOffset()) {
+                final int x = mScroller.getCurrX();
+                if (x != (int) mOffsetPixels) setOffsetPixels(x);
+                if (mScroller.isFinished()) completeAnimation();
+            } else {
+                completeAnimation();
+            }
+        }
+
+        if (mDirty) {
+            mDirty = false;
+            mFrameCount++;
+            mTimeline.add((mClock.nanoTime() - mStartTime) / Clock.NANOS_PER_MS, mOffsetPixels);
+        }
+    }
+
+    private void animateOffsetTo(int position, int velocity, boolean animate) {
+        mTouchHandler.endDrag();
+
+        final int dx = position - (int) mOffsetPixels;
+        if (dx == 0 || !animate) {
+            setOffsetPixels(position);
+            mDrawerState = position == 0 ? DrawerTouchHandler.STATE_CLOSED : DrawerTouchHandler.STATE_OPEN;
+            return;
+        }
+
+        startAnimation(position,
+                DrawerGeometry.animationDuration(dx, velocity, mHeader.menuSize, mHeader.maxAnimationDuration));
+    }
+
+    private void startAnimation(int position, int duration) {
+        final int startX = (int) mOffsetPixels;
+        final int dx = position - startX;
+
+        mDrawerState = mEdge.isOpening(dx) ? DrawerTouchHandler.STATE_OPENING : DrawerTouchHandler.STATE_CLOSING;
+        mScroller.startScroll(startX, 0, dx, 0, duration, mClock.nanoTime());
+        mAnimating = true;
+    }
+
+    private void completeAnimation() {
+        mScroller.abortAnimation();
+        final int finalX = mScroller.getFinalX();
+        setOffsetPixels(finalX);
+        mDrawerState = finalX == 0 ? DrawerTouchHandler.STATE_CLOSED : DrawerTouchHandler.STATE_OPEN;
+        mAnimating = false;
+    }
+
+    @Override
+    public int getWidth() {
+        return mHeader.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return mHeader.height;
+    }
+
+    @Override
+    public Edge getEdge() {
+        return mEdge;
+    }
+
+    @Override
+    public float getOffsetPixels() {
+        return mOffsetPixels;
+    }
+
+    @Override
+    public boolean isMenuVisible() {
+        return mMenuVisible;
+    }
+
+    @Override
+    public boolean isPeeking() {
+        return false;
+    }
+
+    @Override
+    public int getDrawerState() {
+        return mDrawerState;
+    }
+
+    @Override
+    public int getMenuSize() {
+        return mHeader.menuSize;
+    }
+
+    @Override
+    public int getTouchMode() {
+        return mHeader.touchMode;
+    }
+
+    @Override
+    public int getTouchSize() {
+        return mHeader.touchSize;
+    }
+
+    @Override
+    public int getTouchSlop() {
+        return mHeader.touchSlop;
+    }
+
+    @Override
+    public int getPeekSize() {
+        return mHeader.peekSize;
+    }
+
+    @Override
+    public int getCloseEnough() {
+        return mHeader.closeEnough;
+    }
+
+    @Override
+    public boolean onDownAllowDrag(int x, int y) {
+        return mTouchHandler.onDownAllowDrag(x, y);
+    }
+
+    @Override
+    public boolean onMoveAllowDrag(int x, int y, float dx, float dy) {
+        return mTouchHandler.onMoveAllowDrag(x, y, dx, dy);
+    }
+
+    @Override
+    public void onMoveEvent(float dx, float dy) {
+        mTouchHandler.onMoveEvent(dx, dy);
+    }
+
+    @Override
+    public void onUpEvent(int x, int y) {
+        mTouchHandler.onUpEvent(x, y);
+    }
+
+    @Override
+    public boolean checkTouchSlop(float dx, float dy) {
+        return mTouchHandler.checkTouchSlop(dx, dy);
+    }
+
+    @Override
+    public boolean isCloseEnough() {
+        return mTouchHandler.isCloseEnough();
+    }
+
+    /**
+     * The edge of the content of the sliding drawer, and of the menu of the overlay drawer, follows the offset.
+     */
+    @Override
+    public boolean isContentTouch(int x, int y) {
+        return mEdge.isBeyond(mEdge.axis(x, y), mEdge.edge(mHeader.width, mHeader.height) + (int) mOffsetPixels);
+    }
+
+    @Override
+    public boolean canChildrenScroll(int dx, int dy, int x, int y) {
+        return false;
+    }
+
+    @Override
+    public void setOffsetPixels(float offsetPixels) {
+        final int oldOffset = (int) mOffsetPixels;
+        final int newOffset = (int) offsetPixels;
+
+        mOffsetPixels = offsetPixels;
+        mDirty = true;
+
+        if (newOffset != oldOffset) {
+            mMenuVisible = newOffset != 0;
+        }
+    }
+
+    @Override
+    public void setDrawerState(int state) {
+        mDrawerState = state;
+    }
+
+    @Override
+    public void stopAnimation() {
+        mRevealTime = NO_REVEAL;
+        mScroller.abortAnimation();
+        mAnimating = false;
+    }
+
+    @Override
+    public void endPeek() {
+    }
+
+    @Override
+    public void openMenu() {
+        animateOffsetTo(mEdge.openOffset(mHeader.menuSize), 0, true);
+    }
+
+    @Override
+    public void closeMenu() {
+        animateOffsetTo(0, 0, true);
+    }
+
+    @Override
+    public void animateOffsetTo(int position, int velocity) {
+        animateOffsetTo(position, velocity, true);
+    }
+
+    @Override
+    public void scheduleReveal() {
+        mRevealTime = mClock.nanoTime() + DrawerTouchHandler.REVEAL_DELAY * Clock.NANOS_PER_MS;
+    }
+
+    @Override
+    public void cancelReveal() {
+        mRevealTime = NO_REVEAL;
+    }
+
+    @Override
+    public void prepareLayerTranslation() {
+    }
+
+    @Override
+    public void startLayerTranslation() {
+    }
+
+    @Override
+    public void cancelLayerTranslation() {
+    }
+
+    @Override
+    public void requestDisallowInterceptTouchEvent() {
+        mDisallowIntercept = true;
+        mRevealTime = NO_REVEAL;
+    }
+
+    /**
+     * Only {@link TouchEvent}s are dispatched, so the historical samples are added like {@code VelocityTracker} does.
+     */
+    @Override
+    public void addMovement(TouchInput input) {
+        final TouchEvent ev = (TouchEvent) input;
+        final boolean down = ev.getActionMasked() == TouchEvent.ACTION_DOWN;
+        if (down) {
+            mVelocity.clear();
+        }
+
+        final int index = ev.findPointerIndex(down ? ev.getPointerId(0) : mTouchHandler.getActivePointerId());
+        if (index == -1) {
+            return;
+        }
+
+        for (int h = 0; h < ev.getHistorySize(); h++) {
+            mVelocity.add(ev.getHistoricalEventTime(h),
+                    mEdge.axis(ev.getHistoricalX(index, h), ev.getHistoricalY(index, h)));
+        }
+        mVelocity.add(ev.getEventTime(), mEdge.axis(ev.getX(index), ev.getY(index)));
+    }
+
+    @Override
+    public void clearMovements() {
+        mVelocity.clear();
+    }
+
+    @Override
+    public void releaseMovements() {
+        mVelocity.clear();
+    }
+
+    @Override
+    public float getVelocity(int pointerId) {
+        return mVelocity.getVelocity(mHeader.maxVelocity);
+    }
+}
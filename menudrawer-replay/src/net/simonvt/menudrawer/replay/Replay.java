@@ -0,0 +1,194 @@
+package net.simonvt.menudrawer.replay;
+
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.GestureTrace;
+import net.simonvt.menudrawer.core.TraceReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays recorded gesture traces through the touch handling of the drawers and reports, for each trace, the work
+ * done handling the events and animating, and the state the drawer settled in, followed by a summary of the corpus.
+ * The offset at every frame is written to a CSV file per trace.
+ * <p/>
+ * Traces are independent, each is replayed against its own simulation and clock, so they're spread over a thread per
+ * core.
+ * <p/>
+ * Usage: Replay [-o output directory] [-j threads] [-q] trace|directory...
+ * <p/>
+ * -q only prints traces that settled in a different state than the one recorded on the device. Exits with 1 if there
+ * are any.
+ */
+public final class Replay {
+
+    static final String TRACE_EXTENSION = ".mdtrace";
+
+    private Replay() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        File outDir = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean quiet = false;
+        final List<File> traces = new ArrayList<File>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-o".equals(args[i]) && i + 1 < args.length) {
+                outDir = new File(args[++i]);
+            } else if ("-j".equals(args[i]) && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else if ("-q".equals(args[i])) {
+                quiet = true;
+            } else {
+                collectTraces(new File(args[i]), traces);
+            }
+        }
+
+        if (traces.isEmpty()) {
+            System.out.println("No traces found");
+            return;
+        }
+
+        Collections.sort(traces);
+        if (outDir != null) outDir.mkdirs();
+
+        final long start = System.nanoTime();
+        final List<ReplayResult> results = replayAll(traces, outDir, threads);
+        final long wallNanos = System.nanoTime() - start;
+
+        System.out.println(String.format("%-40s %6s %6s %10s %10s  %-9s %-9s",
+                "trace", "events", "frames", "settle", "events", "state", "recorded"));
+        for (ReplayResult result : results) {
+            if (!quiet || !result.matches()) printResult(result);
+        }
+
+        final ReplaySummary summary = new ReplaySummary(results);
+        summary.print(System.out, threads, wallNanos);
+
+        if (summary.getMismatches() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Replays the traces over the given number of threads.
+     *
+     * @return The results, in the order of the traces.
+     */
+    static List<ReplayResult> replayAll(List<File> traces, final File outDir, int threads)
+            throws IOException, InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<ReplayResult>> futures = new ArrayList<Future<ReplayResult>>(traces.size());
+            for (final File file : traces) {
+                futures.add(executor.submit(new Callable<ReplayResult>() {
+                    @Override
+                    public ReplayResult call() throws IOException {
+                        final ReplayResult result = replay(file);
+                        if (outDir != null) writeTimeline(result, new File(outDir, result.mName + ".csv"));
+                        return result;
+                    }
+                }));
+            }
+
+            final List<ReplayResult> results = new ArrayList<ReplayResult>(traces.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw new IOException("Unable to replay " + traces.get(i) + ": " + cause.getMessage());
+                    }
+                    throw new RuntimeException("Unable to replay " + traces.get(i), cause);
+                }
+            }
+
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static ReplayResult replay(File file) throws IOException {
+        final GestureTrace trace;
+        final InputStream in = new FileInputStream(file);
+        try {
+            trace = TraceReader.read(in);
+        } finally {
+            in.close();
+        }
+
+        String name = file.getName();
+        name = name.substring(0, name.length() - TRACE_EXTENSION.length());
+        return new DrawerSimulation(trace.getHeader()).replay(name, trace);
+    }
+
+    private static void collectTraces(File file, List<File> traces) {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    collectTraces(child, traces);
+                }
+            }
+        } else if (file.getName().endsWith(TRACE_EXTENSION)) {
+            traces.add(file);
+        }
+    }
+
+    private static void printResult(ReplayResult result) {
+        System.out.println(String.format("%-40s %6d %6d %8dus %8dus  %-9s %-9s%s",
+                result.mName,
+                result.mEventCount,
+                result.mFrameCount,
+                result.mSettleNanos / 1000,
+                result.mEventNanos / 1000,
+                stateName(result.mFinalState),
+                stateName(result.mExpectedState),
+                result.matches() ? "" : "  MISMATCH"));
+    }
+
+    private static void writeTimeline(ReplayResult result, File file) throws IOException {
+        final PrintWriter writer = new PrintWriter(new FileWriter(file));
+        try {
+            writer.println("time_ms,offset");
+            final Timeline timeline = result.mTimeline;
+            for (int i = 0; i < timeline.size(); i++) {
+                writer.println(timeline.getTime(i) + "," + timeline.getOffset(i));
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    static String stateName(int state) {
+        switch (state) {
+            case DrawerTouchHandler.STATE_CLOSED:
+                return "closed";
+            case DrawerTouchHandler.STATE_CLOSING:
+                return "closing";
+            case DrawerTouchHandler.STATE_DRAGGING:
+                return "dragging";
+            case DrawerTouchHandler.STATE_OPENING:
+                return "opening";
+            case DrawerTouchHandler.STATE_OPEN:
+                return "open";
+            default:
+                return "unknown";
+        }
+    }
+}
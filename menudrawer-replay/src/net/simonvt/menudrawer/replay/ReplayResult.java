@@ -0,0 +1,77 @@
+package net.simonvt.menudrawer.replay;
+
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.GestureTrace;
+
+/**
+ * The outcome of replaying one trace.
+ */
+final class ReplayResult {
+
+    final String mName;
+
+    final int mEventCount;
+
+    final int mFrameCount;
+
+    /**
+     * Time spent running the frames of the animation after the last event, until the drawer settled, in nanoseconds.
+     * Drawing isn't replayed.
+     */
+    final long mSettleNanos;
+
+    /**
+     * Time spent handling events in {@link DrawerTouchHandler}, in nanoseconds.
+     */
+    final long mEventNanos;
+
+    final int mFinalState;
+
+    final float mFinalOffset;
+
+    final int mExpectedState;
+
+    final float mExpectedOffset;
+
+    final Timeline mTimeline;
+
+    ReplayResult(String name, int eventCount, int frameCount, long settleNanos, long eventNanos, int finalState,
+            float finalOffset, int expectedState, float expectedOffset, Timeline timeline) {
+        mName = name;
+        mEventCount = eventCount;
+        mFrameCount = frameCount;
+        mSettleNanos = settleNanos;
+        mEventNanos = eventNanos;
+        mFinalState = finalState;
+        mFinalOffset = finalOffset;
+        mExpectedState = expectedState;
+        mExpectedOffset = expectedOffset;
+        mTimeline = timeline;
+    }
+
+    /**
+     * Whether the replay settled in the state recorded on the device. Traces without a recorded state always match.
+     */
+    boolean matches() {
+        return mExpectedState == GestureTrace.STATE_UNKNOWN || mExpectedState == mFinalState;
+    }
+
+    /**
+     * Whether the replay ended with the drawer open or closed, rather than still dragging or animating.
+     */
+    boolean isSettled() {
+        return mFinalState == DrawerTouchHandler.STATE_OPEN || mFinalState == DrawerTouchHandler.STATE_CLOSED;
+    }
+
+    /**
+     * Difference between the final offset of the replay and the one recorded on the device, or 0 if the recording
+     * didn't settle.
+     */
+    float getOffsetError() {
+        if (mExpectedState == GestureTrace.STATE_UNKNOWN) {
+            return 0.0f;
+        }
+
+        return Math.abs(mFinalOffset - mExpectedOffset);
+    }
+}
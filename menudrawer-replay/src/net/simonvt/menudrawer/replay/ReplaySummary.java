@@ -0,0 +1,116 @@
+package net.simonvt.menudrawer.replay;
+
+import net.simonvt.menudrawer.core.GestureTrace;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregated metrics of a corpus of replayed traces.
+ */
+final class ReplaySummary {
+
+    private final int mTraceCount;
+
+    private int mMismatches;
+
+    private int mUnsettled;
+
+    private int mRecordedCount;
+
+    private double mOffsetErrorSum;
+
+    private float mMaxOffsetError;
+
+    private String mMaxOffsetErrorTrace;
+
+    private long mEventCount;
+
+    private long mFrameCount;
+
+    private long mSettleNanos;
+
+    private long mEventNanos;
+
+    /**
+     * Time the settle animation after the last event took for each trace, sorted.
+     */
+    private final long[] mTraceSettleNanos;
+
+    private String mSlowestTrace;
+
+    ReplaySummary(List<ReplayResult> results) {
+        mTraceCount = results.size();
+        mTraceSettleNanos = new long[mTraceCount];
+
+        long slowest = -1L;
+        for (int i = 0; i < mTraceCount; i++) {
+            final ReplayResult result = results.get(i);
+
+            if (!result.matches()) mMismatches++;
+            if (!result.isSettled()) mUnsettled++;
+
+            if (result.mExpectedState != GestureTrace.STATE_UNKNOWN) {
+                mRecordedCount++;
+                final float error = result.getOffsetError();
+                mOffsetErrorSum += error;
+                if (mMaxOffsetErrorTrace == null || error > mMaxOffsetError) {
+                    mMaxOffsetError = error;
+                    mMaxOffsetErrorTrace = result.mName;
+                }
+            }
+
+            mEventCount += result.mEventCount;
+            mFrameCount += result.mFrameCount;
+            mSettleNanos += result.mSettleNanos;
+            mEventNanos += result.mEventNanos;
+
+            mTraceSettleNanos[i] = result.mSettleNanos;
+            if (result.mSettleNanos > slowest) {
+                slowest = result.mSettleNanos;
+                mSlowestTrace = result.mName;
+            }
+        }
+
+        Arrays.sort(mTraceSettleNanos);
+    }
+
+    int getMismatches() {
+        return mMismatches;
+    }
+
+    void print(PrintStream out, int threads, long wallNanos) {
+        out.println();
+        out.println(String.format("Replayed %d traces (%d events, %d frames) on %d threads in %dms",
+                mTraceCount, mEventCount, mFrameCount, threads, wallNanos / 1000000));
+
+        out.println(String.format("State:        %d of %d recorded states match, %d traces didn't settle",
+                mRecordedCount - mMismatches, mRecordedCount, mUnsettled));
+
+        if (mRecordedCount > 0) {
+            out.println(String.format("Offset error: mean %.1fpx, max %.1fpx (%s)",
+                    mOffsetErrorSum / mRecordedCount, mMaxOffsetError, mMaxOffsetErrorTrace));
+        }
+
+        // Only the scroller and the touch handler are shared with the drawers, drawing isn't replayed.
+        if (mTraceCount > 0) {
+            out.println(String.format("Settle work:  mean %dus per trace, p50 %dus, p95 %dus, max %dus (%s)",
+                    mSettleNanos / mTraceCount / 1000,
+                    percentile(0.50) / 1000,
+                    percentile(0.95) / 1000,
+                    mTraceSettleNanos[mTraceCount - 1] / 1000,
+                    mSlowestTrace));
+        }
+
+        if (mEventCount > 0) {
+            out.println(String.format("Event work:   mean %dns per event in the touch handler",
+                    mEventNanos / mEventCount));
+        }
+    }
+
+    private long percentile(double percentile) {
+        final int index = (int) Math.ceil(percentile * mTraceCount) - 1;
+        return mTraceSettleNanos[Math.max(0, Math.min(mTraceCount - 1, index))];
+    }
+}
@@ -0,0 +1,167 @@
+package net.simonvt.menudrawer.replay;
+
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.Edge;
+import net.simonvt.menudrawer.core.TouchEvent;
+import net.simonvt.menudrawer.core.TraceHeader;
+import net.simonvt.menudrawer.core.TraceWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the synthetic corpus in traces/, so the replay has gestures to check before any are recorded on a device.
+ * The gestures are drawn as straight lines sampled every {@link #SAMPLE_INTERVAL}, with two samples batched per move
+ * event like the input system does at 60fps. The recorded states are the ones the drawers settle in on a device.
+ * <p/>
+ * Usage: SyntheticTraces directory
+ */
+public final class SyntheticTraces {
+
+    /**
+     * Time between two touch samples, in milliseconds.
+     */
+    private static final int SAMPLE_INTERVAL = 8;
+
+    private static final long START_TIME = 100000L;
+
+    // An xxhdpi phone in portrait.
+    private static final int WIDTH = 1080;
+
+    private static final int HEIGHT = 1920;
+
+    private static final int MENU_SIZE = 810;
+
+    private SyntheticTraces() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: SyntheticTraces directory");
+            System.exit(1);
+        }
+
+        final File dir = new File(args[0]);
+        dir.mkdirs();
+
+        // Flicked open from the bezel.
+        write(dir, "left-open-flick", header(Edge.LEFT, false),
+                new Gesture(20, 900).lineTo(120, 905, 48).lineTo(520, 915, 64),
+                DrawerTouchHandler.STATE_OPEN, MENU_SIZE);
+
+        // Dragged out from the bezel, brought back and held still before it's released.
+        write(dir, "left-aborted-swipe", header(Edge.LEFT, false),
+                new Gesture(20, 900).lineTo(260, 910, 240).lineTo(40, 905, 320).lineTo(40, 905, 120),
+                DrawerTouchHandler.STATE_CLOSED, 0.0f);
+
+        // A list scrolled with a touch that starts within the bezel, which the drawer must leave to the content.
+        write(dir, "left-vertical-scroll", header(Edge.LEFT, false),
+                new Gesture(30, 1400).lineTo(36, 1100, 120).lineTo(40, 700, 160),
+                DrawerTouchHandler.STATE_CLOSED, 0.0f);
+
+        write(dir, "right-open-flick", header(Edge.RIGHT, false),
+                new Gesture(1060, 900).lineTo(960, 895, 48).lineTo(560, 885, 64),
+                DrawerTouchHandler.STATE_OPEN, -MENU_SIZE);
+
+        write(dir, "overlay-open-flick", header(Edge.LEFT, true),
+                new Gesture(15, 900).lineTo(115, 905, 48).lineTo(515, 915, 64),
+                DrawerTouchHandler.STATE_OPEN, MENU_SIZE);
+    }
+
+    private static TraceHeader header(Edge edge, boolean overlay) {
+        final TraceHeader header = new TraceHeader();
+        header.width = WIDTH;
+        header.height = HEIGHT;
+        header.edge = edge;
+        header.overlay = overlay;
+        header.menuSize = MENU_SIZE;
+        header.touchMode = DrawerTouchHandler.TOUCH_MODE_BEZEL;
+        header.touchSize = 72;
+        header.touchSlop = 24;
+        header.maxVelocity = 24000;
+        header.maxAnimationDuration = 600;
+        header.closeEnough = 9;
+        header.peekSize = overlay ? 60 : 0;
+        return header;
+    }
+
+    private static void write(File dir, String name, TraceHeader header, Gesture gesture, int finalState,
+            float finalOffset) throws IOException {
+        final File file = new File(dir, name + Replay.TRACE_EXTENSION);
+        final TraceWriter writer = new TraceWriter(new FileOutputStream(file), header);
+        try {
+            for (TouchEvent event : gesture.toEvents()) {
+                writer.write(event);
+            }
+            writer.finish(finalState, finalOffset);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * A single pointer that moves along straight lines.
+     */
+    private static final class Gesture {
+
+        private final List<float[]> mSamples = new ArrayList<float[]>();
+
+        Gesture(float x, float y) {
+            mSamples.add(new float[] {x, y});
+        }
+
+        /**
+         * Moves the pointer to the point at a constant speed, over the duration in milliseconds.
+         */
+        Gesture lineTo(float x, float y, int duration) {
+            final float[] from = mSamples.get(mSamples.size() - 1);
+            final int steps = Math.max(1, duration / SAMPLE_INTERVAL);
+            for (int i = 1; i <= steps; i++) {
+                final float t = (float) i / steps;
+                mSamples.add(new float[] {from[0] + (x - from[0]) * t, from[1] + (y - from[1]) * t});
+            }
+            return this;
+        }
+
+        /**
+         * Returns a down event at the first sample, move events of two samples each, and an up event at the last
+         * sample.
+         */
+        List<TouchEvent> toEvents() {
+            final List<TouchEvent> events = new ArrayList<TouchEvent>();
+            final int last = mSamples.size() - 1;
+
+            events.add(event(TouchEvent.ACTION_DOWN, 0, 0));
+            int index = 1;
+            while (index < last) {
+                final int end = Math.min(index + 1, last - 1);
+                events.add(event(TouchEvent.ACTION_MOVE, index, end));
+                index = end + 1;
+            }
+            events.add(event(TouchEvent.ACTION_UP, last, last));
+
+            return events;
+        }
+
+        /**
+         * Returns an event of the samples from the first to the last index, the ones before the last as history.
+         */
+        private TouchEvent event(int action, int first, int last) {
+            final int count = last - first + 1;
+            final long[] times = new long[count];
+            final float[] x = new float[count];
+            final float[] y = new float[count];
+            for (int i = 0; i < count; i++) {
+                final float[] sample = mSamples.get(first + i);
+                times[i] = START_TIME + (first + i) * SAMPLE_INTERVAL;
+                x[i] = sample[0];
+                y[i] = sample[1];
+            }
+
+            return new TouchEvent(action, 0, new int[] {0}, times, x, y);
+        }
+    }
+}
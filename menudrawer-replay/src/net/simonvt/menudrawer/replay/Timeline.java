@@ -0,0 +1,41 @@
+package net.simonvt.menudrawer.replay;
+
+import java.util.Arrays;
+
+/**
+ * The offset of the drawer at each frame of a replay.
+ */
+final class Timeline {
+
+    private long[] mTimes = new long[64];
+
+    private float[] mOffsets = new float[64];
+
+    private int mSize;
+
+    void add(long time, float offset) {
+        if (mSize == mTimes.length) {
+            mTimes = Arrays.copyOf(mTimes, mSize * 2);
+            mOffsets = Arrays.copyOf(mOffsets, mSize * 2);
+        }
+
+        mTimes[mSize] = time;
+        mOffsets[mSize] = offset;
+        mSize++;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * Time of the frame in milliseconds, relative to the start of the trace.
+     */
+    long getTime(int index) {
+        return mTimes[index];
+    }
+
+    float getOffset(int index) {
+        return mOffsets[index];
+    }
+}
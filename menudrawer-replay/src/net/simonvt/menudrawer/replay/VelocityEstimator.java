@@ -0,0 +1,103 @@
+package net.simonvt.menudrawer.replay;
+
+/**
+ * Estimates the velocity of a pointer along one axis. Like the default strategy of {@code VelocityTracker}, this
+ * fits a second degree polynomial through the samples of the last 100ms by least squares.
+ */
+final class VelocityEstimator {
+
+    private static final int MAX_SAMPLES = 20;
+
+    private static final long HORIZON = 100L;
+
+    private final long[] mTimes = new long[MAX_SAMPLES];
+
+    private final float[] mPositions = new float[MAX_SAMPLES];
+
+    /**
+     * Index of the latest sample.
+     */
+    private int mIndex = -1;
+
+    private int mCount;
+
+    void clear() {
+        mIndex = -1;
+        mCount = 0;
+    }
+
+    /**
+     * @param time     Time of the sample in milliseconds.
+     * @param position Position along the axis in pixels.
+     */
+    void add(long time, float position) {
+        mIndex = (mIndex + 1) % MAX_SAMPLES;
+        mTimes[mIndex] = time;
+        mPositions[mIndex] = position;
+        mCount = Math.min(mCount + 1, MAX_SAMPLES);
+    }
+
+    /**
+     * @param maxVelocity The maximum velocity, in pixels per second.
+     * @return The velocity at the latest sample in pixels per second, clamped to +-maxVelocity.
+     */
+    float getVelocity(float maxVelocity) {
+        if (mCount < 2) {
+            return 0.0f;
+        }
+
+        final long latest = mTimes[mIndex];
+
+        // Sums for the normal equations, with time in seconds relative to the latest sample.
+        double n = 0.0;
+        double st = 0.0;
+        double st2 = 0.0;
+        double st3 = 0.0;
+        double st4 = 0.0;
+        double sx = 0.0;
+        double stx = 0.0;
+        double st2x = 0.0;
+
+        for (int i = 0; i < mCount; i++) {
+            final int index = (mIndex - i + MAX_SAMPLES) % MAX_SAMPLES;
+            final long age = latest - mTimes[index];
+            if (age > HORIZON) break;
+
+            final double t = -age / 1000.0;
+            final double x = mPositions[index];
+            n++;
+            st += t;
+            st2 += t * t;
+            st3 += t * t * t;
+            st4 += t * t * t * t;
+            sx += x;
+            stx += t * x;
+            st2x += t * t * x;
+        }
+
+        double velocity = 0.0;
+
+        if (n >= 3) {
+            // Solve for the linear coefficient of x = a + b * t + c * t^2 with Cramer's rule.
+            final double det = determinant(n, st, st2, st, st2, st3, st2, st3, st4);
+            if (det != 0.0) {
+                velocity = determinant(n, sx, st2, st, stx, st3, st2, st2x, st4) / det;
+            }
+        }
+
+        if (velocity == 0.0 && n >= 2) {
+            final double det = n * st2 - st * st;
+            if (det != 0.0) {
+                velocity = (n * stx - st * sx) / det;
+            }
+        }
+
+        return (float) Math.max(-maxVelocity, Math.min(maxVelocity, velocity));
+    }
+
+    private static double determinant(double a, double b, double c,
+            double d, double e, double f,
+            double g, double h, double i) {
+        return a * (e * i - f * h) - b * (d * i - f * g) + c * (d * h - e * g);
+    }
+}
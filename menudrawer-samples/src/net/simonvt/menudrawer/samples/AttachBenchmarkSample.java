@@ -0,0 +1,160 @@
+package net.simonvt.menudrawer.samples;
+
+import net.simonvt.menudrawer.MenuDrawer;
+import net.simonvt.menudrawer.Position;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.os.Handler;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the cost of {@link MenuDrawer#attach(Activity, MenuDrawer.Type, Position, int)} for every type, position
+ * and drag mode. The drawer is detached again after every run. The results are shown and logged.
+ * <p/>
+ * The phases of attach are traced, so capturing a systrace with this app while the benchmark runs shows where the
+ * time goes.
+ */
+public class AttachBenchmarkSample extends Activity {
+
+    private static final String TAG = "AttachBenchmarkSample";
+
+    private static final int WARMUP_RUNS = 3;
+
+    private static final int RUNS = 20;
+
+    private static final int[] DRAG_MODES = {
+            MenuDrawer.MENU_DRAG_CONTENT, MenuDrawer.MENU_DRAG_WINDOW,
+    };
+
+    private final Handler mHandler = new Handler();
+
+    private final List<Config> mConfigs = new ArrayList<Config>();
+
+    private final StringBuilder mResults = new StringBuilder();
+
+    private View mContentView;
+
+    private TextView mResultsView;
+
+    private int mNextConfig;
+
+    @Override
+    protected void onCreate(Bundle inState) {
+        super.onCreate(inState);
+
+        for (MenuDrawer.Type type : MenuDrawer.Type.values()) {
+            for (Position position : Position.values()) {
+                for (int dragMode : DRAG_MODES) {
+                    mConfigs.add(new Config(type, position, dragMode));
+                }
+            }
+        }
+
+        mResultsView = new TextView(this);
+        mResultsView.setText(R.string.sample_attach_benchmark_running);
+        ScrollView scrollView = new ScrollView(this);
+        scrollView.addView(mResultsView);
+        mContentView = scrollView;
+        setContentView(scrollView);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Start once the activity has been drawn, and run a config per message so the UI thread isn't blocked.
+        mHandler.post(mRunNextConfig);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        mHandler.removeCallbacks(mRunNextConfig);
+    }
+
+    private final Runnable mRunNextConfig = new Runnable() {
+        @Override
+        public void run() {
+            if (mNextConfig == mConfigs.size()) {
+                mResultsView.setText(mResults);
+                return;
+            }
+
+            final Config config = mConfigs.get(mNextConfig++);
+            final String result = config + ": " + measure(config);
+            Log.i(TAG, result);
+            mResults.append(result).append('\n');
+            mResultsView.setText(mResults);
+
+            mHandler.post(this);
+        }
+    };
+
+    private String measure(Config config) {
+        final long[] times = new long[RUNS];
+
+        for (int i = 0; i < WARMUP_RUNS + RUNS; i++) {
+            final long start = System.nanoTime();
+            final MenuDrawer drawer = MenuDrawer.attach(this, config.mType, config.mPosition, config.mDragMode);
+            final long time = System.nanoTime() - start;
+            detach(drawer, config.mDragMode);
+
+            if (i >= WARMUP_RUNS) {
+                times[i - WARMUP_RUNS] = time;
+            }
+        }
+
+        Arrays.sort(times);
+        return String.format("median %dus, min %dus, max %dus",
+                times[RUNS / 2] / 1000, times[0] / 1000, times[RUNS - 1] / 1000);
+    }
+
+    /**
+     * Undoes the attach, restoring the views the drawer replaced.
+     */
+    private void detach(MenuDrawer drawer, int dragMode) {
+        final ViewGroup parent = (ViewGroup) drawer.getParent();
+        parent.removeView(drawer);
+
+        if (dragMode == MenuDrawer.MENU_DRAG_WINDOW) {
+            // The decor child was moved into the content container of the drawer.
+            View decorChild = findViewById(android.R.id.content);
+            while (decorChild.getParent().getParent() != drawer) {
+                decorChild = (View) decorChild.getParent();
+            }
+            ((ViewGroup) decorChild.getParent()).removeView(decorChild);
+            parent.addView(decorChild, decorChild.getLayoutParams());
+        } else {
+            // The views of the content were removed.
+            parent.addView(mContentView);
+        }
+    }
+
+    private static final class Config {
+
+        final MenuDrawer.Type mType;
+
+        final Position mPosition;
+
+        final int mDragMode;
+
+        Config(MenuDrawer.Type type, Position position, int dragMode) {
+            mType = type;
+            mPosition = position;
+            mDragMode = dragMode;
+        }
+
+        @Override
+        public String toString() {
+            return mType + " " + mPosition + " " + (mDragMode == MenuDrawer.MENU_DRAG_WINDOW ? "window" : "content");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package net.simonvt.menudrawer.samples;
+
+import net.simonvt.menudrawer.GestureRecorder;
+import net.simonvt.menudrawer.MenuDrawer;
+import net.simonvt.menudrawer.Position;
+
+import android.os.Build;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.widget.TextView;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Records every gesture on the drawer to its own trace file, which can be pulled off the device and replayed with
+ * the menudrawer-replay harness.
+ */
+public class GestureRecordingSample extends BaseListSample {
+
+    private static final String TAG = "GestureRecordingSample";
+
+    private GestureRecorder mRecorder;
+
+    private File mTraceDir;
+
+    private int mTraceCount;
+
+    /**
+     * Whether the last finger has been lifted, and the trace should be finished once the drawer settles.
+     */
+    private boolean mGestureEnded;
+
+    private TextView mContentTextView;
+
+    @Override
+    protected void onCreate(Bundle inState) {
+        super.onCreate(inState);
+
+        mMenuDrawer.setContentView(R.layout.activity_contentsample);
+        mMenuDrawer.setTouchMode(MenuDrawer.TOUCH_MODE_FULLSCREEN);
+        mMenuDrawer.setOnDrawerStateChangeListener(new MenuDrawer.OnDrawerStateChangeListener() {
+            @Override
+            public void onDrawerStateChange(int oldState, int newState) {
+                if (mGestureEnded && (newState == MenuDrawer.STATE_OPEN || newState == MenuDrawer.STATE_CLOSED)) {
+                    finishTrace();
+                }
+            }
+
+            @Override
+            public void onDrawerSlide(float openRatio, int offsetPixels) {
+            }
+        });
+
+        File filesDir = null;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.FROYO) {
+            filesDir = getExternalFilesDir(null);
+        }
+        if (filesDir == null) {
+            filesDir = getFilesDir();
+        }
+        mTraceDir = new File(filesDir, "traces");
+        mTraceDir.mkdirs();
+
+        mContentTextView = (TextView) findViewById(R.id.contentText);
+        mContentTextView.setText(getString(R.string.sample_recording, mTraceDir.getAbsolutePath()));
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        final int action = ev.getAction() & MotionEvent.ACTION_MASK;
+
+        if (action == MotionEvent.ACTION_DOWN) {
+            finishTrace();
+            startTrace();
+        }
+
+        if (mRecorder != null) {
+            try {
+                mRecorder.record(ev);
+            } catch (IOException e) {
+                Log.e(TAG, "Unable to record event", e);
+                mRecorder = null;
+            }
+        }
+
+        final boolean handled = super.dispatchTouchEvent(ev);
+
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mGestureEnded = true;
+            final int drawerState = mMenuDrawer.getDrawerState();
+            if (drawerState == MenuDrawer.STATE_OPEN || drawerState == MenuDrawer.STATE_CLOSED) {
+                finishTrace();
+            }
+        }
+
+        return handled;
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        finishTrace();
+    }
+
+    private void startTrace() {
+        final File file = new File(mTraceDir, "gesture-" + System.currentTimeMillis() + ".mdtrace");
+        try {
+            mRecorder = new GestureRecorder(mMenuDrawer, new FileOutputStream(file));
+            mGestureEnded = false;
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to create " + file, e);
+        }
+    }
+
+    private void finishTrace() {
+        if (mRecorder == null) {
+            return;
+        }
+
+        try {
+            mRecorder.finish();
+            mTraceCount++;
+            mContentTextView.setText(getString(R.string.sample_recorded, mTraceCount, mTraceDir.getAbsolutePath()));
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to finish trace", e);
+        }
+
+        mRecorder = null;
+        mGestureEnded = false;
+    }
+
+    @Override
+    protected void onMenuItemClicked(int position, Item item) {
+        mMenuDrawer.closeMenu();
+    }
+
+    @Override
+    protected int getDragMode() {
+        return MenuDrawer.MENU_DRAG_CONTENT;
+    }
+
+    @Override
+    protected Position getDrawerPosition() {
+        return Position.START;
+    }
+}
@@ -37,6 +37,10 @@ public class SamplesActivity extends ListActivity {
         mAdapter.addSample("Fragments", "Sample that uses fragments as the content", FragmentSample.class);
         mAdapter.addSample("ActionBarSherlock sample", "Showcases the drawer used with ActionBarSherlock.",
                 ActionBarSherlockSample.class);
+        mAdapter.addSample("Gesture recording", "Records gestures to traces that can be replayed off-device.",
+                GestureRecordingSample.class);
+        mAdapter.addSample("Attach benchmark", "Measures MenuDrawer.attach for every type, position and drag mode.",
+                AttachBenchmarkSample.class);
 
         mAdapter.addHeader("Static drawer");
         mAdapter.addSample("Static drawer", "The drawer is always visible", StaticDrawerSample.class);
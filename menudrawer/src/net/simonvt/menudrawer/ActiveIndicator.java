@@ -0,0 +1,116 @@
+package net.simonvt.menudrawer;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.drawable.Drawable;
+
+/**
+ * The indicator drawn next to the active view. It's loaded from a resource through {@link DecorationCache}, bitmaps
+ * are decoded alpha only when the indicator is tinted and other drawables share their state between drawers.
+ */
+final class ActiveIndicator {
+
+    private int mResId;
+
+    /**
+     * The color the indicator is drawn with, or 0 to draw it with its own colors.
+     */
+    private int mTint;
+
+    /**
+     * Paint that draws the alpha only bitmap with {@link #mTint}.
+     */
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private Bitmap mBitmap;
+
+    /**
+     * The indicator when the resource isn't a bitmap.
+     */
+    private Drawable mDrawable;
+
+    int getResId() {
+        return mResId;
+    }
+
+    /**
+     * Sets the resource the indicator is loaded from by {@link #load(Resources)}.
+     */
+    void setResId(int resId) {
+        mResId = resId;
+    }
+
+    int getTint() {
+        return mTint;
+    }
+
+    /**
+     * Sets the tint the indicator is loaded with by {@link #load(Resources)}.
+     */
+    void setTint(int color) {
+        mTint = color;
+        mPaint.setColor(color);
+    }
+
+    boolean isLoaded() {
+        return mBitmap != null || mDrawable != null;
+    }
+
+    /**
+     * Loads the indicator from the resource, or unloads it if there's no resource.
+     */
+    void load(Resources res) {
+        unload();
+        if (mResId == 0) return;
+
+        TraceHelper.beginSection(TraceHelper.DECODE_INDICATOR);
+        mBitmap = DecorationCache.getIndicator(res, mResId, mTint != 0);
+        if (mBitmap == null) {
+            Drawable indicator = DecorationCache.getIndicatorDrawable(res, mResId);
+            if (mTint != 0) {
+                // The color filter is kept in the state, a tinted drawable can't share it.
+                indicator = indicator.mutate();
+                indicator.setColorFilter(mTint, PorterDuff.Mode.SRC_IN);
+            }
+            indicator.setBounds(0, 0, Math.max(0, indicator.getIntrinsicWidth()),
+                    Math.max(0, indicator.getIntrinsicHeight()));
+            mDrawable = indicator;
+        }
+        TraceHelper.endSection();
+    }
+
+    void unload() {
+        mBitmap = null;
+        mDrawable = null;
+    }
+
+    /**
+     * Returns the bitmap or drawable state shared through {@link DecorationCache}, or null when it isn't loaded.
+     */
+    Object getShared() {
+        if (mBitmap != null) return mBitmap;
+        return mDrawable != null ? mDrawable.getConstantState() : null;
+    }
+
+    int getWidth() {
+        return mBitmap != null ? mBitmap.getWidth() : mDrawable.getBounds().width();
+    }
+
+    int getHeight() {
+        return mBitmap != null ? mBitmap.getHeight() : mDrawable.getBounds().height();
+    }
+
+    void draw(Canvas canvas, int left, int top) {
+        if (mBitmap != null) {
+            canvas.drawBitmap(mBitmap, left, top, mTint != 0 ? mPaint : null);
+        } else {
+            canvas.save();
+            canvas.translate(left, top);
+            mDrawable.draw(canvas);
+            canvas.restore();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.simonvt.menudrawer;
+
+import net.simonvt.menudrawer.core.Clock;
+
+import android.view.animation.AnimationUtils;
+
+/**
+ * Clock reading {@link AnimationUtils#currentAnimationTimeMillis()}, the time the framework animations are driven
+ * with. It uses the time base of {@code SystemClock.uptimeMillis()}, like {@link System#nanoTime()}.
+ */
+final class AnimationClock implements Clock {
+
+    static final AnimationClock INSTANCE = new AnimationClock();
+
+    private AnimationClock() {
+    }
+
+    @Override
+    public long nanoTime() {
+        return AnimationUtils.currentAnimationTimeMillis() * NANOS_PER_MS;
+    }
+}
@@ -0,0 +1,78 @@
+package net.simonvt.menudrawer;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.Settings;
+
+/**
+ * The animator duration scale of the system, which the drawer scales the durations of its animations by. A scale of 0,
+ * set when animations are turned off in the developer options or by a test harness, makes the animations instant.
+ * <p/>
+ * The scale is read once per process and kept up to date by observing the setting. It's only available on API 16 and
+ * above, below that animations aren't scaled.
+ */
+final class AnimatorScale {
+
+    /**
+     * Settings.Global.ANIMATOR_DURATION_SCALE, Settings.System.ANIMATOR_DURATION_SCALE on API 16.
+     */
+    private static final String ANIMATOR_DURATION_SCALE = "animator_duration_scale";
+
+    private static float sScale = 1.0f;
+
+    private static boolean sRegistered;
+
+    private AnimatorScale() {
+    }
+
+    /**
+     * Reads the scale and starts observing changes to it.
+     */
+    static void register(Context context) {
+        if (sRegistered) return;
+        sRegistered = true;
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) return;
+
+        final ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        final Uri uri = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+                ? Settings.Global.getUriFor(ANIMATOR_DURATION_SCALE)
+                : Settings.System.getUriFor(ANIMATOR_DURATION_SCALE);
+        resolver.registerContentObserver(uri, false, new ContentObserver(new Handler(Looper.getMainLooper())) {
+            @Override
+            public void onChange(boolean selfChange) {
+                read(resolver);
+            }
+        });
+        read(resolver);
+    }
+
+    private static void read(ContentResolver resolver) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            sScale = Settings.Global.getFloat(resolver, ANIMATOR_DURATION_SCALE, 1.0f);
+        } else {
+            sScale = Settings.System.getFloat(resolver, ANIMATOR_DURATION_SCALE, 1.0f);
+        }
+    }
+
+    /**
+     * Returns whether animations are turned off, and should jump to their end.
+     */
+    static boolean isOff() {
+        return sScale == 0.0f;
+    }
+
+    /**
+     * Returns the duration scaled by the system scale.
+     *
+     * @param duration The unscaled duration in milliseconds.
+     */
+    static int scale(int duration) {
+        return (int) (duration * sScale);
+    }
+}
@@ -20,6 +20,36 @@ class BuildLayerFrameLayout extends FrameLayout {
 
     private boolean mFirst = true;
 
+    /**
+     * Flags the layer as changed once the new size has been drawn.
+     */
+    private final Runnable mChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mChanged = true;
+            invalidate();
+        }
+    };
+
+    /**
+     * Builds the hardware layer.
+     */
+    private final Runnable mBuildLayerRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (mAttached) {
+                final int layerType = getLayerType();
+                // If it's already a hardware layer, it'll be built anyway.
+                if (layerType != LAYER_TYPE_HARDWARE || mFirst) {
+                    mFirst = false;
+                    setLayerType(LAYER_TYPE_HARDWARE, null);
+                    buildLayer();
+                    setLayerType(LAYER_TYPE_NONE, null);
+                }
+            }
+        }
+    };
+
     public BuildLayerFrameLayout(Context context) {
         super(context);
         if (MenuDrawer.USE_TRANSLATIONS) {
@@ -45,6 +75,15 @@ class BuildLayerFrameLayout extends FrameLayout {
         mHardwareLayersEnabled = enabled;
     }
 
+    /**
+     * Destroys the hardware layer, if the view has one. A new layer is created the next time the drawer animates.
+     */
+    void releaseLayer() {
+        if (MenuDrawer.USE_TRANSLATIONS && getLayerType() == LAYER_TYPE_HARDWARE) {
+            setLayerType(LAYER_TYPE_NONE, null);
+        }
+    }
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
@@ -62,13 +101,7 @@ class BuildLayerFrameLayout extends FrameLayout {
         super.onSizeChanged(w, h, oldw, oldh);
 
         if (MenuDrawer.USE_TRANSLATIONS && mHardwareLayersEnabled) {
-            post(new Runnable() {
-                @Override
-                public void run() {
-                    mChanged = true;
-                    invalidate();
-                }
-            });
+            post(mChangedRunnable);
         }
     }
 
@@ -77,21 +110,7 @@ class BuildLayerFrameLayout extends FrameLayout {
         super.dispatchDraw(canvas);
 
         if (mChanged && MenuDrawer.USE_TRANSLATIONS) {
-            post(new Runnable() {
-                @Override
-                public void run() {
-                    if (mAttached) {
-                        final int layerType = getLayerType();
-                        // If it's already a hardware layer, it'll be built anyway.
-                        if (layerType != LAYER_TYPE_HARDWARE || mFirst) {
-                            mFirst = false;
-                            setLayerType(LAYER_TYPE_HARDWARE, null);
-                            buildLayer();
-                            setLayerType(LAYER_TYPE_NONE, null);
-                        }
-                    }
-                }
-            });
+            post(mBuildLayerRunnable);
 
             mChanged = false;
         }
@@ -0,0 +1,168 @@
+package net.simonvt.menudrawer;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the decorations drawers draw, so drawers in every activity of the back stack share one decoded
+ * indicator and one drop shadow state. Drawers reference the decorations they use while attached to a window, entries
+ * nobody references are dropped when memory is trimmed.
+ */
+final class DecorationCache {
+
+    private static final Map<Long, Bitmap> INDICATORS = new HashMap<Long, Bitmap>();
+
+    private static final Map<Long, Drawable.ConstantState> INDICATOR_DRAWABLES =
+            new HashMap<Long, Drawable.ConstantState>();
+
+    private static final Map<Long, Drawable.ConstantState> DROP_SHADOWS = new HashMap<Long, Drawable.ConstantState>();
+
+    private static final Map<Object, int[]> REFERENCES = new IdentityHashMap<Object, int[]>();
+
+    private DecorationCache() {
+    }
+
+    /**
+     * Returns the indicator bitmap decoded for the density of the resources, decoding it if it isn't cached. Returns
+     * null if the resource isn't a bitmap.
+     *
+     * @param alphaOnly Whether to keep only the alpha channel, for indicators drawn with the color of a paint.
+     */
+    static Bitmap getIndicator(Resources res, int resId, boolean alphaOnly) {
+        final int targetDensity = res.getDisplayMetrics().densityDpi;
+        final Long key = ((long) resId << 32) | (targetDensity << 1) | (alphaOnly ? 1 : 0);
+        Bitmap indicator = INDICATORS.get(key);
+        if (indicator == null) {
+            indicator = decodeIndicator(res, resId, targetDensity, alphaOnly);
+            if (indicator != null) INDICATORS.put(key, indicator);
+        }
+
+        return indicator;
+    }
+
+    private static Bitmap decodeIndicator(Resources res, int resId, int targetDensity, boolean alphaOnly) {
+        final TypedValue value = new TypedValue();
+        res.getValue(resId, value, true);
+        if (value.string == null || value.string.toString().endsWith(".xml")) {
+            return null;
+        }
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        if (alphaOnly) options.inPreferredConfig = Bitmap.Config.ALPHA_8;
+
+        // Subsample resources of a much higher density rather than decoding them at full size only to scale them
+        // down, the decoder scales what's left to the target density.
+        if (value.density != TypedValue.DENSITY_NONE) {
+            final int density = value.density == TypedValue.DENSITY_DEFAULT
+                    ? DisplayMetrics.DENSITY_DEFAULT
+                    : value.density;
+            int sampleSize = 1;
+            while (density / (sampleSize * 2) >= targetDensity) {
+                sampleSize *= 2;
+            }
+            options.inSampleSize = sampleSize;
+            options.inDensity = density / sampleSize;
+            options.inTargetDensity = targetDensity;
+        }
+
+        Bitmap indicator = BitmapFactory.decodeResource(res, resId, options);
+        if (alphaOnly && indicator != null && indicator.getConfig() != Bitmap.Config.ALPHA_8) {
+            // Decoders may ignore the preferred config.
+            final Bitmap alpha = indicator.extractAlpha();
+            indicator.recycle();
+            indicator = alpha;
+        }
+
+        return indicator;
+    }
+
+    /**
+     * Returns a drawable for an indicator resource that isn't a bitmap. Drawables returned for the same resource and
+     * density share their state.
+     */
+    static Drawable getIndicatorDrawable(Resources res, int resId) {
+        final Long key = ((long) resId << 32) | res.getDisplayMetrics().densityDpi;
+        Drawable.ConstantState state = INDICATOR_DRAWABLES.get(key);
+        if (state == null) {
+            final Drawable indicator = res.getDrawable(resId);
+            state = indicator.getConstantState();
+            if (state != null) INDICATOR_DRAWABLES.put(key, state);
+            return indicator;
+        }
+
+        return state.newDrawable(res);
+    }
+
+    /**
+     * Returns a drop shadow drawable for the color and orientation. Drawables returned for the same color and
+     * orientation share their state.
+     */
+    static Drawable getDropShadow(int color, GradientDrawable.Orientation orientation) {
+        final Long key = ((long) color << 32) | orientation.ordinal();
+        Drawable.ConstantState state = DROP_SHADOWS.get(key);
+        if (state == null) {
+            final int endColor = color & 0x00FFFFFF;
+            final GradientDrawable dropShadow = new GradientDrawable(orientation,
+                    new int[] {
+                            color,
+                            endColor,
+                    });
+            DROP_SHADOWS.put(key, dropShadow.getConstantState());
+            return dropShadow;
+        }
+
+        return state.newDrawable();
+    }
+
+    /**
+     * Adds a reference to a decoration, which keeps it cached when memory is trimmed. Null is ignored.
+     */
+    static void acquire(Object decoration) {
+        if (decoration == null) return;
+
+        int[] count = REFERENCES.get(decoration);
+        if (count == null) {
+            count = new int[1];
+            REFERENCES.put(decoration, count);
+        }
+        count[0]++;
+    }
+
+    /**
+     * Removes a reference added with {@link #acquire(Object)}. Null is ignored.
+     */
+    static void release(Object decoration) {
+        if (decoration == null) return;
+
+        int[] count = REFERENCES.get(decoration);
+        if (count != null && --count[0] == 0) {
+            REFERENCES.remove(decoration);
+        }
+    }
+
+    /**
+     * Drops the cached decorations no attached drawer references. Drawers still holding them keep drawing them, they're
+     * just no longer shared with drawers created later.
+     */
+    static void trimMemory() {
+        trim(INDICATORS.values().iterator());
+        trim(INDICATOR_DRAWABLES.values().iterator());
+        trim(DROP_SHADOWS.values().iterator());
+    }
+
+    private static void trim(Iterator<?> it) {
+        while (it.hasNext()) {
+            if (!REFERENCES.containsKey(it.next())) it.remove();
+        }
+    }
+}
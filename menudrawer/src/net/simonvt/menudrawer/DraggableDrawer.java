@@ -1,7 +1,19 @@
 package net.simonvt.menudrawer;
 
+import net.simonvt.menudrawer.core.Clock;
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.Edge;
+import net.simonvt.menudrawer.core.FloatScroller;
+import net.simonvt.menudrawer.core.Interpolator;
+import net.simonvt.menudrawer.core.PeekInterpolator;
+import net.simonvt.menudrawer.core.Scroller;
+import net.simonvt.menudrawer.core.TouchInput;
+
 import android.app.Activity;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.graphics.Rect;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Parcelable;
@@ -12,7 +24,6 @@ import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.view.animation.Interpolator;
 
 public abstract class DraggableDrawer extends MenuDrawer {
 
@@ -51,7 +62,22 @@ public abstract class DraggableDrawer extends MenuDrawer {
      */
     private static final int CLOSE_ENOUGH = 3;
 
-    protected static final int INVALID_POINTER = -1;
+    protected static final int INVALID_POINTER = DrawerTouchHandler.INVALID_POINTER;
+
+    /**
+     * The duration of the menu size animation.
+     */
+    private static final int MENU_SIZE_ANIMATION_DURATION = 250;
+
+    /**
+     * Value of {@link #mMenuLayoutSize} when the menu size isn't animating.
+     */
+    private static final int NO_MENU_LAYOUT_SIZE = -1;
+
+    /**
+     * Value of {@link #mAnimationEventTime} when the next animation isn't started by a touch event.
+     */
+    protected static final long NO_EVENT_TIME = -1;
 
     /**
      * Slop before starting a drag.
@@ -79,32 +105,52 @@ public abstract class DraggableDrawer extends MenuDrawer {
     };
 
     /**
-     * Indicates whether the drawer is currently being dragged.
+     * Runnable used when animating the menu size.
+     */
+    private final Runnable mMenuSizeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            animateMenuSizeInvalidate();
+        }
+    };
+
+    /**
+     * Handles the touch events of the drawer.
+     */
+    protected DrawerTouchHandler mTouchHandler;
+
+    /**
+     * Passes the touch event that is being handled to {@link #mTouchHandler}.
+     */
+    private final MotionEventInput mTouchInput = new MotionEventInput();
+
+    /**
+     * Indicates whether the drawer is currently being dragged. Mirrors {@link #mTouchHandler}.
      */
     protected boolean mIsDragging;
 
     /**
-     * The current pointer id.
+     * The current pointer id. Mirrors {@link #mTouchHandler}.
      */
     protected int mActivePointerId = INVALID_POINTER;
 
     /**
-     * The initial X position of a drag.
+     * The initial X position of a drag. Mirrors {@link #mTouchHandler}.
      */
     protected float mInitialMotionX;
 
     /**
-     * The initial Y position of a drag.
+     * The initial Y position of a drag. Mirrors {@link #mTouchHandler}.
      */
     protected float mInitialMotionY;
 
     /**
-     * The last X position of a drag.
+     * The last X position of a drag. Mirrors {@link #mTouchHandler}.
      */
     protected float mLastMotionX = -1;
 
     /**
-     * The last Y position of a drag.
+     * The last Y position of a drag. Mirrors {@link #mTouchHandler}.
      */
     protected float mLastMotionY = -1;
 
@@ -139,9 +185,9 @@ public abstract class DraggableDrawer extends MenuDrawer {
     protected int mCloseEnough;
 
     /**
-     * Runnable used for first call to {@link #startPeek()} after {@link #peekDrawer()}  has been called.
+     * Schedules the calls to {@link #startPeek()} after {@link #peekDrawer()} has been called.
      */
-    private Runnable mPeekStartRunnable;
+    private PeekScheduler mPeekScheduler;
 
     protected boolean mIsPeeking;
 
@@ -150,13 +196,60 @@ public abstract class DraggableDrawer extends MenuDrawer {
      */
     private Scroller mScroller;
 
+    /**
+     * Time in nanoseconds of the touch event that is being handled, used to anchor an animation started by the event
+     * to the time of the event. {@link #NO_EVENT_TIME} when no touch event is being handled.
+     */
+    protected long mAnimationEventTime = NO_EVENT_TIME;
+
     /**
      * Indicates whether the current layer type is {@link android.view.View#LAYER_TYPE_HARDWARE}.
      */
     protected boolean mLayerTypeHardware;
 
-    DraggableDrawer(Activity activity, int dragMode) {
-        super(activity, dragMode);
+    /**
+     * Event reused when cancelling the touch of the content.
+     */
+    private MotionEvent mCancelEvent;
+
+    /**
+     * Indicates whether the hardware layers were enabled speculatively by a touch that hasn't started a drag yet.
+     */
+    private boolean mLayerTranslationPending;
+
+    /**
+     * Scroller used when animating the menu size.
+     */
+    private FloatScroller mMenuSizeScroller;
+
+    /**
+     * The menu size a menu size animation started at.
+     */
+    private int mMenuSizeFrom;
+
+    /**
+     * The menu size a menu size animation ends at.
+     */
+    private int mMenuSizeTo;
+
+    /**
+     * The size the menu container is measured and laid out with while the menu size is animating, or
+     * {@link #NO_MENU_LAYOUT_SIZE}.
+     */
+    private int mMenuLayoutSize = NO_MENU_LAYOUT_SIZE;
+
+    /**
+     * Clip bounds of the menu container while the menu size is animating.
+     */
+    private final Rect mMenuClipRect = new Rect();
+
+    /**
+     * Indicates whether the drawer switches to the static layout once it's open.
+     */
+    private boolean mStaticLayoutPending;
+
+    DraggableDrawer(Activity activity, int dragMode, DrawerConfig config) {
+        super(activity, dragMode, config);
     }
 
     public DraggableDrawer(Context context) {
@@ -173,18 +266,61 @@ public abstract class DraggableDrawer extends MenuDrawer {
 
     @Override
     protected void initDrawer(Context context, AttributeSet attrs, int defStyle) {
+        mTouchHandler = createTouchHandler();
         super.initDrawer(context, attrs, defStyle);
 
         final ViewConfiguration configuration = ViewConfiguration.get(context);
         mTouchSlop = configuration.getScaledTouchSlop();
         mMaxVelocity = configuration.getScaledMaximumFlingVelocity();
 
-        mScroller = new Scroller(context, MenuDrawer.SMOOTH_INTERPOLATOR);
-        mPeekScroller = new Scroller(context, DraggableDrawer.PEEK_INTERPOLATOR);
+        mScroller = createScroller(context, MenuDrawer.SMOOTH_INTERPOLATOR);
+        mPeekScroller = createScroller(context, DraggableDrawer.PEEK_INTERPOLATOR);
+        mPeekScheduler = new PeekScheduler(this);
+        mMenuSizeScroller = new FloatScroller(MenuDrawer.SMOOTH_INTERPOLATOR, mClock);
 
         mCloseEnough = dpToPx(DraggableDrawer.CLOSE_ENOUGH);
     }
 
+    /**
+     * Creates a scroller with the display density and scroll friction of the device, that reads the time from the
+     * drawer clock.
+     */
+    private Scroller createScroller(Context context, Interpolator interpolator) {
+        final float ppi = context.getResources().getDisplayMetrics().density * 160.0f;
+        final boolean flywheel = context.getApplicationInfo().targetSdkVersion >= Build.VERSION_CODES.HONEYCOMB;
+        return new Scroller(interpolator, ppi, ViewConfiguration.getScrollFriction(), flywheel, mClock);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mPeekScheduler.setWindowVisible(getWindowVisibility() == VISIBLE);
+        mPeekScheduler.setWindowFocused(hasWindowFocus());
+        mPeekScheduler.setAttached(true);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mPeekScheduler.setAttached(false);
+        if (mCancelEvent != null) {
+            mCancelEvent.recycle();
+            mCancelEvent = null;
+        }
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        mPeekScheduler.setWindowVisible(visibility == VISIBLE);
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        mPeekScheduler.setWindowFocused(hasWindowFocus);
+    }
+
     public void toggleMenu(boolean animate) {
         if (mDrawerState == STATE_OPEN || mDrawerState == STATE_OPENING) {
             closeMenu(animate);
@@ -198,6 +334,12 @@ public abstract class DraggableDrawer extends MenuDrawer {
     }
 
     public void setMenuSize(final int size) {
+        if (mMenuLayoutSize != NO_MENU_LAYOUT_SIZE) {
+            mMenuSizeScroller.abortAnimation();
+            removeCallbacks(mMenuSizeRunnable);
+            endMenuSizeAnimation();
+        }
+
         mMenuSize = size;
         if (mDrawerState == STATE_OPEN || mDrawerState == STATE_OPENING) {
             setOffsetPixels(mMenuSize);
@@ -206,6 +348,118 @@ public abstract class DraggableDrawer extends MenuDrawer {
         invalidate();
     }
 
+    @Override
+    public void animateMenuSize(int size) {
+        // The menu container can only be clipped to the animated size on API 18 and above.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2 || mIsStatic) {
+            setMenuSize(size);
+            return;
+        }
+
+        final boolean animating = mMenuLayoutSize != NO_MENU_LAYOUT_SIZE;
+        if (!animating && size == mMenuSize) {
+            return;
+        }
+
+        removeCallbacks(mMenuSizeRunnable);
+
+        final int layoutSize = getMenuLayoutSize();
+        mMenuSizeFrom = mMenuSize;
+        mMenuSizeTo = size;
+        mMenuLayoutSize = Math.max(layoutSize, size);
+        if (mMenuLayoutSize != layoutSize) {
+            requestLayout();
+        }
+        updateMenuClipBounds();
+
+        mMenuSizeScroller.startScroll(0.0f, 1.0f, AnimatorScale.scale(MENU_SIZE_ANIMATION_DURATION));
+        animateMenuSizeInvalidate();
+    }
+
+    /**
+     * Returns the size the menu container is measured and laid out with. While the menu size is animating this is
+     * larger than or equal to the menu size, and the menu container is clipped to the menu size.
+     *
+     * @return The size of the menu container.
+     */
+    protected int getMenuLayoutSize() {
+        return mMenuLayoutSize != NO_MENU_LAYOUT_SIZE ? mMenuLayoutSize : mMenuSize;
+    }
+
+    /**
+     * Callback when each frame in the menu size animation should be drawn.
+     */
+    private void animateMenuSizeInvalidate() {
+        if (mMenuSizeScroller.computeScrollOffset()) {
+            final float t = mMenuSizeScroller.getCurr();
+            applyMenuSize(mMenuSizeFrom + Math.round((mMenuSizeTo - mMenuSizeFrom) * t));
+
+            if (!mMenuSizeScroller.isFinished()) {
+                postOnAnimation(mMenuSizeRunnable);
+                return;
+            }
+        }
+
+        applyMenuSize(mMenuSizeTo);
+        endMenuSizeAnimation();
+    }
+
+    /**
+     * Updates the menu size without laying out the drawer again. Only used while the menu size is animating.
+     *
+     * @param size The size of the menu.
+     */
+    private void applyMenuSize(int size) {
+        if (size == mMenuSize) {
+            return;
+        }
+
+        mMenuSize = size;
+        updateMenuClipBounds();
+
+        final int oldOffset = (int) mOffsetPixels;
+        if (mDrawerState == STATE_OPEN) {
+            setOffsetPixels(mEdge.openOffset(size));
+        }
+        if ((int) mOffsetPixels == oldOffset) {
+            // The translation of the menu may still depend on its size.
+            onOffsetPixelsChanged(oldOffset);
+        }
+    }
+
+    /**
+     * Removes the clip bounds of the menu container and lays out the drawer again if the menu container is larger
+     * than the menu.
+     */
+    private void endMenuSizeAnimation() {
+        final boolean relayout = mMenuLayoutSize != mMenuSize;
+        mMenuLayoutSize = NO_MENU_LAYOUT_SIZE;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            mMenuContainer.setClipBounds(null);
+        }
+        if (relayout) {
+            requestLayout();
+        }
+    }
+
+    /**
+     * Clips the menu container to the part of it that holds a menu of the current size.
+     */
+    private void updateMenuClipBounds() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return;
+        }
+
+        // Keep the part of the menu container nearest to the edge, which is what the menu sits against.
+        final int layoutSize = getMenuLayoutSize();
+        final int edge = mEdge.sign() > 0 ? 0 : layoutSize;
+        final int width = getWidth();
+        final int height = getHeight();
+        EdgeHelper.setBand(mEdge, mMenuClipRect, edge, edge + mEdge.openOffset(mMenuSize), width, height);
+
+        mMenuContainer.setClipBounds(mMenuClipRect);
+    }
+
     public void setOffsetMenuEnabled(boolean offsetMenu) {
         if (offsetMenu != mOffsetMenu) {
             mOffsetMenu = offsetMenu;
@@ -218,6 +472,79 @@ public abstract class DraggableDrawer extends MenuDrawer {
         return mOffsetMenu;
     }
 
+    @Override
+    public void setStaticLayout(boolean staticLayout, boolean animate) {
+        mStaticLayoutPending = false;
+        if (staticLayout == mIsStatic) {
+            return;
+        }
+
+        final int openOffset = mEdge.openOffset(mMenuSize);
+        if (!staticLayout) {
+            applyStaticLayout(false, animate);
+            closeMenu(animate);
+        } else if (animate && (int) mOffsetPixels != openOffset) {
+            // The layout is switched when the drawer is open, see setDrawerState(int).
+            mStaticLayoutPending = true;
+            animateOffsetTo(openOffset, 0, true);
+        } else {
+            stopAnimation();
+            endPeek();
+            setOffsetPixels(openOffset);
+            setDrawerState(STATE_OPEN);
+            applyStaticLayout(true, animate);
+        }
+    }
+
+    /**
+     * Switches the layout of the open drawer. The static layout places the content next to the menu, where the sliding
+     * drawer already shows it. See {@link #onStaticLayoutChanged(boolean, boolean)} for drawers that show it elsewhere.
+     */
+    private void applyStaticLayout(boolean isStatic, boolean animate) {
+        mIsStatic = isStatic;
+        stopLayerTranslation();
+
+        if (isStatic) {
+            if (USE_TRANSLATIONS) {
+                EdgeHelper.translate(mEdge, mContentContainer, 0);
+                EdgeHelper.translate(mEdge, mMenuContainer, 0);
+            }
+        } else {
+            onOffsetPixelsChanged((int) mOffsetPixels);
+            updateTouchAreaSize();
+        }
+        onStaticLayoutChanged(isStatic, animate);
+
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Called when the drawer switches to or from the static layout, before it is laid out again. Drawers that show
+     * the content somewhere else than the static layout places it can move it there.
+     *
+     * @param isStatic Whether the layout is now static.
+     * @param animate  Whether the switch should be animated.
+     */
+    protected void onStaticLayoutChanged(boolean isStatic, boolean animate) {
+    }
+
+    /**
+     * Measures the menu and the content next to it, for the static layout.
+     */
+    protected void measureStaticLayout(int width, int height) {
+        final boolean horizontal = mEdge.isHorizontal();
+        final int menuWidth = horizontal ? mMenuSize : width;
+        final int menuHeight = horizontal ? height : mMenuSize;
+        mMenuContainer.measure(MeasureSpec.makeMeasureSpec(menuWidth, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(menuHeight, MeasureSpec.EXACTLY));
+
+        final int contentWidth = horizontal ? width - mMenuSize : width;
+        final int contentHeight = horizontal ? height : height - mMenuSize;
+        mContentContainer.measure(MeasureSpec.makeMeasureSpec(contentWidth, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(contentHeight, MeasureSpec.EXACTLY));
+    }
+
     public void peekDrawer() {
         peekDrawer(DEFAULT_PEEK_START_DELAY, DEFAULT_PEEK_DELAY);
     }
@@ -234,17 +561,14 @@ public abstract class DraggableDrawer extends MenuDrawer {
             throw new IllegalArgumentException("delay must be zero or larger");
         }
 
-        removeCallbacks(mPeekRunnable);
-        removeCallbacks(mPeekStartRunnable);
+        endPeek();
 
         mPeekDelay = delay;
-        mPeekStartRunnable = new Runnable() {
-            @Override
-            public void run() {
-                startPeek();
-            }
-        };
-        postDelayed(mPeekStartRunnable, startDelay);
+        mPeekScheduler.start(startDelay, delay);
+    }
+
+    public void setPeekCount(int count) {
+        mPeekScheduler.setCount(count);
     }
 
     public void setHardwareLayerEnabled(boolean enabled) {
@@ -268,7 +592,10 @@ public abstract class DraggableDrawer extends MenuDrawer {
     }
 
     public void setTouchBezelSize(int size) {
-        mTouchBezelSize = size;
+        if (mTouchBezelSize != size) {
+            mTouchBezelSize = size;
+            updateTouchAreaSize();
+        }
     }
 
     public int getTouchBezelSize() {
@@ -298,16 +625,112 @@ public abstract class DraggableDrawer extends MenuDrawer {
         }
     }
 
+    @Override
+    void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                && (mDrawerState == STATE_CLOSED || mDrawerState == STATE_OPEN)) {
+            // Keeps mLayerTypeHardware in sync, so the next animation enables the layers again.
+            mLayerTranslationPending = false;
+            stopLayerTranslation();
+        }
+        super.trimMemory(level);
+    }
+
+    /**
+     * Speculatively sets the layer type to {@link android.view.View#LAYER_TYPE_HARDWARE} and builds the layers while a
+     * touch that might start a drag is within the touch slop, so the layers aren't built on the first frame of the
+     * drag. The layers are released with {@link #cancelLayerTranslation()} if the touch doesn't turn into a drag.
+     */
+    protected void prepareLayerTranslation() {
+        if (mLayerTypeHardware) {
+            return;
+        }
+
+        startLayerTranslation();
+
+        if (mLayerTypeHardware) {
+            mLayerTranslationPending = true;
+            if (getWindowToken() != null) {
+                mMenuContainer.buildLayer();
+                mContentContainer.buildLayer();
+            }
+        }
+    }
+
+    /**
+     * Releases hardware layers enabled by {@link #prepareLayerTranslation()}, if the drawer didn't start moving.
+     */
+    protected void cancelLayerTranslation() {
+        if (mLayerTranslationPending) {
+            mLayerTranslationPending = false;
+            stopLayerTranslation();
+        }
+    }
+
+    @Override
+    protected void setDrawerState(int state) {
+        if (state == STATE_DRAGGING || state == STATE_OPENING || state == STATE_CLOSING) {
+            // The drawer is moving, the layers are no longer speculative.
+            mLayerTranslationPending = false;
+        }
+        super.setDrawerState(state);
+
+        if (mStaticLayoutPending && state != STATE_OPENING) {
+            mStaticLayoutPending = false;
+            if (state == STATE_OPEN) applyStaticLayout(true, true);
+        }
+    }
+
+    @Override
+    public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+        super.requestDisallowInterceptTouchEvent(disallowIntercept);
+        if (disallowIntercept) {
+            cancelLayerTranslation();
+        }
+    }
+
     /**
      * Called when a drag has been ended.
      */
     protected void endDrag() {
-        mIsDragging = false;
+        mTouchHandler.endDrag();
+        syncTouchState();
+    }
 
-        if (mVelocityTracker != null) {
-            mVelocityTracker.recycle();
-            mVelocityTracker = null;
-        }
+    /**
+     * Copies the drag state of {@link #mTouchHandler} to the protected fields that subclasses read.
+     */
+    private void syncTouchState() {
+        mIsDragging = mTouchHandler.isDragging();
+        mActivePointerId = mTouchHandler.getActivePointerId();
+        mInitialMotionX = mTouchHandler.getInitialMotionX();
+        mInitialMotionY = mTouchHandler.getInitialMotionY();
+        mLastMotionX = mTouchHandler.getLastMotionX();
+        mLastMotionY = mTouchHandler.getLastMotionY();
+    }
+
+    protected boolean isCloseEnough() {
+        return mTouchHandler.isCloseEnough();
+    }
+
+    protected boolean checkTouchSlop(float dx, float dy) {
+        return mTouchHandler.checkTouchSlop(dx, dy);
+    }
+
+    protected boolean onDownAllowDrag(int x, int y) {
+        return mTouchHandler.onDownAllowDrag(x, y);
+    }
+
+    protected boolean onMoveAllowDrag(int x, int y, float dx, float dy) {
+        return mTouchHandler.onMoveAllowDrag(x, y, dx, dy);
+    }
+
+    protected void onMoveEvent(float dx, float dy) {
+        mTouchHandler.onMoveEvent(dx, dy);
+    }
+
+    protected void onUpEvent(int x, int y) {
+        mTouchHandler.onUpEvent(x, y);
     }
 
     /**
@@ -330,15 +753,44 @@ public abstract class DraggableDrawer extends MenuDrawer {
         stopLayerTranslation();
     }
 
+    /**
+     * Cancels the touch of the child that the current gesture started on.
+     */
     protected void cancelContentTouch() {
-        final long now = SystemClock.uptimeMillis();
-        final MotionEvent cancelEvent = MotionEvent.obtain(now, now, MotionEvent.ACTION_CANCEL, 0.0f, 0.0f, 0);
-        final int childCount = getChildCount();
-        for (int i = 0; i < childCount; i++) {
-            getChildAt(i).dispatchTouchEvent(cancelEvent);
+        final View target = findTouchTarget((int) mTouchHandler.getInitialMotionX(),
+                (int) mTouchHandler.getInitialMotionY());
+        if (target == null) {
+            return;
+        }
+
+        if (mCancelEvent == null) {
+            final long now = SystemClock.uptimeMillis();
+            mCancelEvent = MotionEvent.obtain(now, now, MotionEvent.ACTION_CANCEL, 0.0f, 0.0f, 0);
+        } else {
+            mCancelEvent.setAction(MotionEvent.ACTION_CANCEL);
+            mCancelEvent.setLocation(0.0f, 0.0f);
+        }
+
+        target.dispatchTouchEvent(mCancelEvent);
+    }
+
+    /**
+     * Returns the topmost visible child that contains the point, or null if there is none.
+     *
+     * @param x X coordinate of the point, relative to this view.
+     * @param y Y coordinate of the point, relative to this view.
+     */
+    private View findTouchTarget(int x, int y) {
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() == VISIBLE
+                    && x >= ViewHelper.getLeft(child) && x < ViewHelper.getRight(child)
+                    && y >= ViewHelper.getTop(child) && y < ViewHelper.getBottom(child)) {
+                return child;
+            }
         }
-        mContentContainer.dispatchTouchEvent(cancelEvent);
-        cancelEvent.recycle();
+
+        return null;
     }
 
     /**
@@ -349,6 +801,10 @@ public abstract class DraggableDrawer extends MenuDrawer {
      * @param animate  Whether the move is animated.
      */
     protected void animateOffsetTo(int position, int velocity, boolean animate) {
+        if (mIsStatic) {
+            return;
+        }
+
         endDrag();
         endPeek();
 
@@ -361,36 +817,43 @@ public abstract class DraggableDrawer extends MenuDrawer {
             return;
         }
 
-        int duration;
-
-        velocity = Math.abs(velocity);
-        if (velocity > 0) {
-            duration = 4 * Math.round(1000.f * Math.abs((float) dx / velocity));
-        } else {
-            duration = (int) (600.f * Math.abs((float) dx / mMenuSize));
-        }
-
-        duration = Math.min(duration, mMaxAnimationDuration);
+        final int duration = DrawerGeometry.animationDuration(dx, velocity, mMenuSize, mMaxAnimationDuration);
         animateOffsetTo(position, duration);
     }
 
     protected void animateOffsetTo(int position, int duration) {
         final int startX = (int) mOffsetPixels;
         final int dx = position - startX;
+        final int scaledDuration = AnimatorScale.scale(duration);
 
-        if (dx > 0) {
-            setDrawerState(STATE_OPENING);
-            mScroller.startScroll(startX, 0, dx, 0, duration);
-        } else {
-            setDrawerState(STATE_CLOSING);
-            mScroller.startScroll(startX, 0, dx, 0, duration);
-        }
+        final long startTime = getAnimationStartTime();
 
-        startLayerTranslation();
+        setDrawerState(mEdge.isOpening(dx) ? STATE_OPENING : STATE_CLOSING);
+        mScroller.startScroll(startX, 0, dx, 0, scaledDuration, startTime);
+
+        // An instant animation ends below, before the layers would be drawn.
+        if (scaledDuration > 0) startLayerTranslation();
 
         postAnimationInvalidate();
     }
 
+    /**
+     * Returns the time an open/close animation started now should start at. An animation started by a touch event is
+     * anchored to the time of the event, but never more than a frame in the past, so a late main thread doesn't make
+     * the first frame jump.
+     *
+     * @return The start time in nanoseconds.
+     */
+    private long getAnimationStartTime() {
+        final long now = mClock.nanoTime();
+        final long eventTime = mAnimationEventTime;
+        if (eventTime == NO_EVENT_TIME || eventTime > now) {
+            return now;
+        }
+
+        return Math.max(eventTime, now - FrameClock.INSTANCE.getFrameIntervalNanos());
+    }
+
     /**
      * Callback when each frame in the drawer animation should be drawn.
      */
@@ -413,7 +876,18 @@ public abstract class DraggableDrawer extends MenuDrawer {
      * Starts peek drawer animation.
      */
     protected void startPeek() {
+        if (mIsStatic) {
+            mPeekScheduler.stop();
+            return;
+        }
+        if (AnimatorScale.isOff()) {
+            // An instant peek can't be seen, skip it but keep the schedule.
+            mPeekScheduler.onPeekFinished();
+            return;
+        }
+
         mIsPeeking = true;
+        mLayerTranslationPending = false;
         initPeekScroller();
 
         startLayerTranslation();
@@ -434,19 +908,19 @@ public abstract class DraggableDrawer extends MenuDrawer {
             if (!mPeekScroller.isFinished()) {
                 postOnAnimation(mPeekRunnable);
                 return;
-
-            } else if (mPeekDelay > 0) {
-                mPeekStartRunnable = new Runnable() {
-                    @Override
-                    public void run() {
-                        startPeek();
-                    }
-                };
-                postDelayed(mPeekStartRunnable, mPeekDelay);
             }
         }
 
         completePeek();
+        mPeekScheduler.onPeekFinished();
+    }
+
+    /**
+     * Ends the peek animation and closes the drawer when peeking is paused, without stopping the peek schedule.
+     */
+    void pausePeek() {
+        removeCallbacks(mPeekRunnable);
+        completePeek();
     }
 
     /**
@@ -466,40 +940,65 @@ public abstract class DraggableDrawer extends MenuDrawer {
      * Stops ongoing peek drawer animation.
      */
     protected void endPeek() {
-        removeCallbacks(mPeekStartRunnable);
+        mPeekScheduler.stop();
         removeCallbacks(mPeekRunnable);
         stopLayerTranslation();
         mIsPeeking = false;
     }
 
-    protected boolean isCloseEnough() {
-        return Math.abs(mOffsetPixels) <= mCloseEnough;
+    /**
+     * Creates the handler of the touch events, with a {@link TouchHost} for the drawer.
+     */
+    protected abstract DrawerTouchHandler createTouchHandler();
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (mIsStatic) {
+            return false;
+        }
+
+        final boolean intercept = mTouchHandler.onInterceptTouchEvent(mTouchInput.set(ev));
+        syncTouchState();
+
+        return intercept;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        if (mIsStatic) {
+            return false;
+        }
+
+        final int action = ev.getAction() & MotionEvent.ACTION_MASK;
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mAnimationEventTime = ev.getEventTime() * Clock.NANOS_PER_MS;
+        }
+        final boolean handled = mTouchHandler.onTouchEvent(mTouchInput.set(ev));
+        mAnimationEventTime = NO_EVENT_TIME;
+        syncTouchState();
+
+        return handled;
     }
 
     protected boolean canChildrenScroll(int dx, int dy, int x, int y) {
         boolean canScroll = false;
 
-        switch (getPosition()) {
-            case LEFT:
-            case RIGHT:
-                if (!mMenuVisible) {
-                    canScroll = canChildScrollHorizontally(mContentContainer, false, dx,
-                            x - ViewHelper.getLeft(mContentContainer), y - ViewHelper.getTop(mContentContainer));
-                } else {
-                    canScroll = canChildScrollHorizontally(mMenuContainer, false, dx,
-                            x - ViewHelper.getLeft(mMenuContainer), y - ViewHelper.getTop(mContentContainer));
-                }
-                break;
-
-            case TOP:
-            case BOTTOM:
-                if (!mMenuVisible) {
-                    canScroll = canChildScrollVertically(mContentContainer, false, dy,
-                            x - ViewHelper.getLeft(mContentContainer), y - ViewHelper.getTop(mContentContainer));
-                } else {
-                    canScroll = canChildScrollVertically(mMenuContainer, false, dy,
-                            x - ViewHelper.getLeft(mMenuContainer), y - ViewHelper.getTop(mContentContainer));
-                }
+        if (mEdge.isHorizontal()) {
+            if (!mMenuVisible) {
+                canScroll = canChildScrollHorizontally(mContentContainer, false, dx,
+                        x - ViewHelper.getLeft(mContentContainer), y - ViewHelper.getTop(mContentContainer));
+            } else {
+                canScroll = canChildScrollHorizontally(mMenuContainer, false, dx,
+                        x - ViewHelper.getLeft(mMenuContainer), y - ViewHelper.getTop(mContentContainer));
+            }
+        } else {
+            if (!mMenuVisible) {
+                canScroll = canChildScrollVertically(mContentContainer, false, dy,
+                        x - ViewHelper.getLeft(mContentContainer), y - ViewHelper.getTop(mContentContainer));
+            } else {
+                canScroll = canChildScrollVertically(mMenuContainer, false, dy,
+                        x - ViewHelper.getLeft(mMenuContainer), y - ViewHelper.getTop(mContentContainer));
+            }
         }
 
         return canScroll;
@@ -575,15 +1074,22 @@ public abstract class DraggableDrawer extends MenuDrawer {
 
     protected float getXVelocity(VelocityTracker velocityTracker) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.FROYO) {
-            return velocityTracker.getXVelocity(mActivePointerId);
+            return velocityTracker.getXVelocity(mTouchHandler.getActivePointerId());
         }
 
         return velocityTracker.getXVelocity();
     }
 
+    /**
+     * Returns the velocity along the axis the drawer is dragged along.
+     */
+    protected float getAxisVelocity(VelocityTracker velocityTracker) {
+        return mEdge.isHorizontal() ? getXVelocity(velocityTracker) : getYVelocity(velocityTracker);
+    }
+
     protected float getYVelocity(VelocityTracker velocityTracker) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.FROYO) {
-            return velocityTracker.getYVelocity(mActivePointerId);
+            return velocityTracker.getYVelocity(mTouchHandler.getActivePointerId());
         }
 
         return velocityTracker.getYVelocity();
@@ -621,4 +1127,206 @@ public abstract class DraggableDrawer extends MenuDrawer {
         }
         mDrawerState = menuOpen ? STATE_OPEN : STATE_CLOSED;
     }
+
+    /**
+     * Connects {@link #mTouchHandler} to the views, animations and velocity tracker of the drawer.
+     */
+    protected abstract class TouchHost implements DrawerTouchHandler.Host {
+
+        @Override
+        public int getWidth() {
+            return DraggableDrawer.this.getWidth();
+        }
+
+        @Override
+        public int getHeight() {
+            return DraggableDrawer.this.getHeight();
+        }
+
+        @Override
+        public Edge getEdge() {
+            return mEdge;
+        }
+
+        @Override
+        public float getOffsetPixels() {
+            return mOffsetPixels;
+        }
+
+        @Override
+        public boolean isMenuVisible() {
+            return mMenuVisible;
+        }
+
+        @Override
+        public boolean isPeeking() {
+            return mIsPeeking;
+        }
+
+        @Override
+        public int getDrawerState() {
+            return mDrawerState;
+        }
+
+        @Override
+        public int getMenuSize() {
+            return mMenuSize;
+        }
+
+        @Override
+        public int getTouchMode() {
+            return mTouchMode;
+        }
+
+        @Override
+        public int getTouchSize() {
+            return mTouchSize;
+        }
+
+        @Override
+        public int getTouchSlop() {
+            return mTouchSlop;
+        }
+
+        @Override
+        public int getPeekSize() {
+            return 0;
+        }
+
+        @Override
+        public int getCloseEnough() {
+            return mCloseEnough;
+        }
+
+        @Override
+        public boolean onDownAllowDrag(int x, int y) {
+            syncTouchState();
+            return DraggableDrawer.this.onDownAllowDrag(x, y);
+        }
+
+        @Override
+        public boolean onMoveAllowDrag(int x, int y, float dx, float dy) {
+            syncTouchState();
+            return DraggableDrawer.this.onMoveAllowDrag(x, y, dx, dy);
+        }
+
+        @Override
+        public void onMoveEvent(float dx, float dy) {
+            syncTouchState();
+            DraggableDrawer.this.onMoveEvent(dx, dy);
+        }
+
+        @Override
+        public void onUpEvent(int x, int y) {
+            syncTouchState();
+            DraggableDrawer.this.onUpEvent(x, y);
+        }
+
+        @Override
+        public boolean checkTouchSlop(float dx, float dy) {
+            syncTouchState();
+            return DraggableDrawer.this.checkTouchSlop(dx, dy);
+        }
+
+        @Override
+        public boolean isCloseEnough() {
+            syncTouchState();
+            return DraggableDrawer.this.isCloseEnough();
+        }
+
+        @Override
+        public boolean canChildrenScroll(int dx, int dy, int x, int y) {
+            return mOnInterceptMoveEventListener != null && DraggableDrawer.this.canChildrenScroll(dx, dy, x, y);
+        }
+
+        @Override
+        public void setOffsetPixels(float offsetPixels) {
+            DraggableDrawer.this.setOffsetPixels(offsetPixels);
+        }
+
+        @Override
+        public void setDrawerState(int state) {
+            DraggableDrawer.this.setDrawerState(state);
+        }
+
+        @Override
+        public void stopAnimation() {
+            DraggableDrawer.this.stopAnimation();
+        }
+
+        @Override
+        public void endPeek() {
+            DraggableDrawer.this.endPeek();
+        }
+
+        @Override
+        public void openMenu() {
+            DraggableDrawer.this.openMenu();
+        }
+
+        @Override
+        public void closeMenu() {
+            DraggableDrawer.this.closeMenu();
+        }
+
+        @Override
+        public void animateOffsetTo(int position, int velocity) {
+            DraggableDrawer.this.animateOffsetTo(position, velocity, true);
+        }
+
+        @Override
+        public void scheduleReveal() {
+        }
+
+        @Override
+        public void cancelReveal() {
+        }
+
+        @Override
+        public void prepareLayerTranslation() {
+            DraggableDrawer.this.prepareLayerTranslation();
+        }
+
+        @Override
+        public void startLayerTranslation() {
+            DraggableDrawer.this.startLayerTranslation();
+        }
+
+        @Override
+        public void cancelLayerTranslation() {
+            DraggableDrawer.this.cancelLayerTranslation();
+        }
+
+        @Override
+        public void requestDisallowInterceptTouchEvent() {
+            DraggableDrawer.this.requestDisallowInterceptTouchEvent(true);
+        }
+
+        @Override
+        public void addMovement(TouchInput ev) {
+            if (mVelocityTracker == null) mVelocityTracker = VelocityTracker.obtain();
+            mVelocityTracker.addMovement(mTouchInput.getEvent());
+        }
+
+        @Override
+        public void clearMovements() {
+            if (mVelocityTracker != null) {
+                mVelocityTracker.clear();
+            }
+        }
+
+        @Override
+        public void releaseMovements() {
+            if (mVelocityTracker != null) {
+                mVelocityTracker.recycle();
+                mVelocityTracker = null;
+            }
+        }
+
+        @Override
+        public float getVelocity(int pointerId) {
+            mVelocityTracker.computeCurrentVelocity(1000, mMaxVelocity);
+            return getAxisVelocity(mVelocityTracker);
+        }
+    }
 }
@@ -0,0 +1,346 @@
+package net.simonvt.menudrawer;
+
+/**
+ * Immutable configuration of a drawer attached with {@link MenuDrawer#attach(android.app.Activity, DrawerConfig)}.
+ * <p/>
+ * Fields set on the builder take precedence over the menuDrawerStyle theme attributes. When every field that has a
+ * theme attribute is set, the theme isn't read at all, so a config built once can be used to attach drawers in every
+ * activity without resolving the styled attributes each time.
+ */
+public final class DrawerConfig {
+
+    static final int CONTENT_BACKGROUND = 1;
+    static final int MENU_BACKGROUND = 1 << 1;
+    static final int MENU_SIZE = 1 << 2;
+    static final int ACTIVE_INDICATOR = 1 << 3;
+    static final int ACTIVE_INDICATOR_TINT = 1 << 4;
+    static final int DROP_SHADOW_ENABLED = 1 << 5;
+    static final int DROP_SHADOW = 1 << 6;
+    static final int DROP_SHADOW_SIZE = 1 << 7;
+    static final int TOUCH_BEZEL_SIZE = 1 << 8;
+    static final int ALLOW_INDICATOR_ANIMATION = 1 << 9;
+    static final int MAX_ANIMATION_DURATION = 1 << 10;
+    static final int SLIDE_DRAWABLE = 1 << 11;
+    static final int UP_CONTENT_DESCRIPTIONS = 1 << 12;
+    static final int DRAW_OVERLAY = 1 << 13;
+    static final int TOUCH_MODE = 1 << 14;
+
+    /**
+     * The fields read from the theme when they're not set.
+     */
+    private static final int STYLED = (1 << 14) - 1;
+
+    final int mSet;
+
+    final MenuDrawer.Type mType;
+
+    final Position mPosition;
+
+    final int mDragMode;
+
+    final int mContentBackground;
+
+    final int mMenuBackground;
+
+    final int mMenuSize;
+
+    final int mActiveIndicator;
+
+    final int mActiveIndicatorTint;
+
+    final boolean mDropShadowEnabled;
+
+    final int mDropShadow;
+
+    final int mDropShadowColor;
+
+    final int mDropShadowSize;
+
+    final int mTouchBezelSize;
+
+    final boolean mAllowIndicatorAnimation;
+
+    final int mMaxAnimationDuration;
+
+    final int mSlideDrawable;
+
+    final int mDrawerOpenContentDesc;
+
+    final int mDrawerClosedContentDesc;
+
+    final boolean mDrawOverlay;
+
+    final int mTouchMode;
+
+    private DrawerConfig(Builder builder) {
+        mSet = builder.mSet;
+        mType = builder.mType;
+        mPosition = builder.mPosition;
+        mDragMode = builder.mDragMode;
+        mContentBackground = builder.mContentBackground;
+        mMenuBackground = builder.mMenuBackground;
+        mMenuSize = builder.mMenuSize;
+        mActiveIndicator = builder.mActiveIndicator;
+        mActiveIndicatorTint = builder.mActiveIndicatorTint;
+        mDropShadowEnabled = builder.mDropShadowEnabled;
+        mDropShadow = builder.mDropShadow;
+        mDropShadowColor = builder.mDropShadowColor;
+        mDropShadowSize = builder.mDropShadowSize;
+        mTouchBezelSize = builder.mTouchBezelSize;
+        mAllowIndicatorAnimation = builder.mAllowIndicatorAnimation;
+        mMaxAnimationDuration = builder.mMaxAnimationDuration;
+        mSlideDrawable = builder.mSlideDrawable;
+        mDrawerOpenContentDesc = builder.mDrawerOpenContentDesc;
+        mDrawerClosedContentDesc = builder.mDrawerClosedContentDesc;
+        mDrawOverlay = builder.mDrawOverlay;
+        mTouchMode = builder.mTouchMode;
+    }
+
+    boolean isSet(int field) {
+        return (mSet & field) != 0;
+    }
+
+    /**
+     * Returns whether every field that has a theme attribute is set, in which case the theme isn't read.
+     */
+    boolean isComplete() {
+        return (mSet & STYLED) == STYLED;
+    }
+
+    public MenuDrawer.Type getType() {
+        return mType;
+    }
+
+    public Position getPosition() {
+        return mPosition;
+    }
+
+    public int getDragMode() {
+        return mDragMode;
+    }
+
+    /**
+     * Builds a {@link DrawerConfig}. Sizes are in pixels, drawables and strings are resource identifiers.
+     */
+    public static final class Builder {
+
+        private int mSet;
+
+        private MenuDrawer.Type mType = MenuDrawer.Type.BEHIND;
+
+        private Position mPosition = Position.START;
+
+        private int mDragMode = MenuDrawer.MENU_DRAG_CONTENT;
+
+        private int mContentBackground;
+
+        private int mMenuBackground;
+
+        private int mMenuSize;
+
+        private int mActiveIndicator;
+
+        private int mActiveIndicatorTint;
+
+        private boolean mDropShadowEnabled;
+
+        private int mDropShadow;
+
+        private int mDropShadowColor;
+
+        private int mDropShadowSize;
+
+        private int mTouchBezelSize;
+
+        private boolean mAllowIndicatorAnimation;
+
+        private int mMaxAnimationDuration;
+
+        private int mSlideDrawable;
+
+        private int mDrawerOpenContentDesc;
+
+        private int mDrawerClosedContentDesc;
+
+        private boolean mDrawOverlay;
+
+        private int mTouchMode;
+
+        /**
+         * Sets the {@link MenuDrawer.Type} of the drawer. Defaults to {@link MenuDrawer.Type#BEHIND}.
+         */
+        public Builder type(MenuDrawer.Type type) {
+            mType = type;
+            return this;
+        }
+
+        /**
+         * Sets the position of the drawer. Defaults to {@link Position#START}.
+         */
+        public Builder position(Position position) {
+            mPosition = position;
+            return this;
+        }
+
+        /**
+         * Sets the drag mode, either {@link MenuDrawer#MENU_DRAG_CONTENT} or {@link MenuDrawer#MENU_DRAG_WINDOW}.
+         * Defaults to {@link MenuDrawer#MENU_DRAG_CONTENT}.
+         */
+        public Builder dragMode(int dragMode) {
+            mDragMode = dragMode;
+            return this;
+        }
+
+        /**
+         * Sets the background of the content, or 0 for none.
+         */
+        public Builder contentBackground(int resId) {
+            mContentBackground = resId;
+            mSet |= CONTENT_BACKGROUND;
+            return this;
+        }
+
+        /**
+         * Sets the background of the menu, or 0 for none.
+         */
+        public Builder menuBackground(int resId) {
+            mMenuBackground = resId;
+            mSet |= MENU_BACKGROUND;
+            return this;
+        }
+
+        /**
+         * Sets the size of the menu.
+         */
+        public Builder menuSize(int size) {
+            mMenuSize = size;
+            mSet |= MENU_SIZE;
+            return this;
+        }
+
+        /**
+         * Sets the indicator drawn next to the active view, or 0 for none.
+         */
+        public Builder activeIndicator(int resId) {
+            mActiveIndicator = resId;
+            mSet |= ACTIVE_INDICATOR;
+            return this;
+        }
+
+        /**
+         * Sets the color the active indicator is drawn in, or 0 to draw it in its own colors.
+         */
+        public Builder activeIndicatorTint(int color) {
+            mActiveIndicatorTint = color;
+            mSet |= ACTIVE_INDICATOR_TINT;
+            return this;
+        }
+
+        /**
+         * Sets whether the drop shadow is drawn.
+         */
+        public Builder dropShadowEnabled(boolean enabled) {
+            mDropShadowEnabled = enabled;
+            mSet |= DROP_SHADOW_ENABLED;
+            return this;
+        }
+
+        /**
+         * Sets the drawable of the drop shadow. This replaces a drop shadow color.
+         */
+        public Builder dropShadow(int resId) {
+            mDropShadow = resId;
+            mDropShadowColor = 0;
+            mSet |= DROP_SHADOW;
+            return this;
+        }
+
+        /**
+         * Sets the color of the drop shadow. This replaces a drop shadow drawable.
+         */
+        public Builder dropShadowColor(int color) {
+            mDropShadow = 0;
+            mDropShadowColor = color;
+            mSet |= DROP_SHADOW;
+            return this;
+        }
+
+        /**
+         * Sets the size of the drop shadow.
+         */
+        public Builder dropShadowSize(int size) {
+            mDropShadowSize = size;
+            mSet |= DROP_SHADOW_SIZE;
+            return this;
+        }
+
+        /**
+         * Sets the size of the area along the edge where a touch starts dragging the drawer.
+         */
+        public Builder touchBezelSize(int size) {
+            mTouchBezelSize = size;
+            mSet |= TOUCH_BEZEL_SIZE;
+            return this;
+        }
+
+        /**
+         * Sets whether the indicator animates between active views.
+         */
+        public Builder allowIndicatorAnimation(boolean animate) {
+            mAllowIndicatorAnimation = animate;
+            mSet |= ALLOW_INDICATOR_ANIMATION;
+            return this;
+        }
+
+        /**
+         * Sets the maximum duration of open and close animations, in milliseconds.
+         */
+        public Builder maxAnimationDuration(int duration) {
+            mMaxAnimationDuration = duration;
+            mSet |= MAX_ANIMATION_DURATION;
+            return this;
+        }
+
+        /**
+         * Sets the drawable shown as up indicator, or 0 for the default.
+         */
+        public Builder slideDrawable(int resId) {
+            mSlideDrawable = resId;
+            mSet |= SLIDE_DRAWABLE;
+            return this;
+        }
+
+        /**
+         * Sets the content descriptions of the up indicator while the drawer is open and closed.
+         */
+        public Builder upContentDescriptions(int openResId, int closedResId) {
+            mDrawerOpenContentDesc = openResId;
+            mDrawerClosedContentDesc = closedResId;
+            mSet |= UP_CONTENT_DESCRIPTIONS;
+            return this;
+        }
+
+        /**
+         * Sets whether the overlay is drawn over the part of the drawer that isn't fully visible.
+         */
+        public Builder drawOverlay(boolean drawOverlay) {
+            mDrawOverlay = drawOverlay;
+            mSet |= DRAW_OVERLAY;
+            return this;
+        }
+
+        /**
+         * Sets the touch mode, one of {@link MenuDrawer#TOUCH_MODE_NONE}, {@link MenuDrawer#TOUCH_MODE_BEZEL} or
+         * {@link MenuDrawer#TOUCH_MODE_FULLSCREEN}.
+         */
+        public Builder touchMode(int mode) {
+            mTouchMode = mode;
+            mSet |= TOUCH_MODE;
+            return this;
+        }
+
+        public DrawerConfig build() {
+            return new DrawerConfig(this);
+        }
+    }
+}
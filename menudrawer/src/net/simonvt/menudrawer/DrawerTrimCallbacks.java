@@ -0,0 +1,64 @@
+package net.simonvt.menudrawer;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forwards the memory trim callbacks of the application to the attached drawers, and then trims
+ * {@link DecorationCache} once all of them have released their decorations. One instance is registered per process.
+ * The callbacks are only delivered on API 14 and above.
+ */
+final class DrawerTrimCallbacks implements ComponentCallbacks2 {
+
+    private static final List<MenuDrawer> DRAWERS = new ArrayList<MenuDrawer>();
+
+    private static boolean sRegistered;
+
+    private DrawerTrimCallbacks() {
+    }
+
+    /**
+     * Registers for the memory trim callbacks of the application.
+     */
+    static void register(Context context) {
+        if (sRegistered) return;
+        sRegistered = true;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            context.getApplicationContext().registerComponentCallbacks(new DrawerTrimCallbacks());
+        }
+    }
+
+    /**
+     * Forwards the callbacks to the drawer until it's removed.
+     */
+    static void add(MenuDrawer drawer) {
+        if (!DRAWERS.contains(drawer)) DRAWERS.add(drawer);
+    }
+
+    static void remove(MenuDrawer drawer) {
+        DRAWERS.remove(drawer);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        for (int i = 0, size = DRAWERS.size(); i < size; i++) {
+            DRAWERS.get(i).trimMemory(level);
+        }
+        DecorationCache.trimMemory();
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+}
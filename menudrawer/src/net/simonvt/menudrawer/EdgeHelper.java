@@ -0,0 +1,172 @@
+package net.simonvt.menudrawer;
+
+import net.simonvt.menudrawer.core.Edge;
+
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+
+/**
+ * Applies the geometry of an {@link Edge} to views, rects and drawables.
+ */
+final class EdgeHelper {
+
+    private EdgeHelper() {
+    }
+
+    /**
+     * Returns the edge of a resolved position.
+     *
+     * @param position The position. Must not be {@link Position#START} or {@link Position#END}.
+     * @return The edge of the position.
+     */
+    public static Edge fromPosition(Position position) {
+        switch (position) {
+            case LEFT:
+                return Edge.LEFT;
+
+            case TOP:
+                return Edge.TOP;
+
+            case RIGHT:
+                return Edge.RIGHT;
+
+            case BOTTOM:
+                return Edge.BOTTOM;
+
+            default:
+                throw new IllegalArgumentException("Position must be resolved: " + position);
+        }
+    }
+
+    /**
+     * Returns the side of a view that faces the edge, including any translation.
+     */
+    public static int near(Edge edge, View v) {
+        if (edge.isHorizontal()) {
+            return edge.sign() > 0 ? ViewHelper.getLeft(v) : ViewHelper.getRight(v);
+        }
+
+        return edge.sign() > 0 ? ViewHelper.getTop(v) : ViewHelper.getBottom(v);
+    }
+
+    /**
+     * Returns the side of a view that faces away from the edge, including any translation.
+     */
+    public static int far(Edge edge, View v) {
+        if (edge.isHorizontal()) {
+            return edge.sign() > 0 ? ViewHelper.getRight(v) : ViewHelper.getLeft(v);
+        }
+
+        return edge.sign() > 0 ? ViewHelper.getBottom(v) : ViewHelper.getTop(v);
+    }
+
+    /**
+     * Sets the translation of a view along the axis of the edge.
+     */
+    public static void translate(Edge edge, View v, float translation) {
+        if (edge.isHorizontal()) {
+            v.setTranslationX(translation);
+        } else {
+            v.setTranslationY(translation);
+        }
+    }
+
+    /**
+     * Animates the translation of a view along the axis of the edge, from its current translation.
+     */
+    public static void animateTranslation(Edge edge, View v, float translation, int duration) {
+        final ViewPropertyAnimator animator = v.animate().setDuration(duration);
+        if (edge.isHorizontal()) {
+            animator.translationX(translation);
+        } else {
+            animator.translationY(translation);
+        }
+    }
+
+    /**
+     * Offsets the layout position of a view along the axis of the edge.
+     */
+    public static void offset(Edge edge, View v, int offset) {
+        if (edge.isHorizontal()) {
+            v.offsetLeftAndRight(offset);
+        } else {
+            v.offsetTopAndBottom(offset);
+        }
+    }
+
+    /**
+     * Lays out a view between two coordinates along the axis of the edge, filling the parent across it.
+     */
+    public static void layout(Edge edge, View v, int from, int to, int width, int height) {
+        v.layout(edge.bandLeft(from, to), edge.bandTop(from, to), edge.bandRight(from, to, width),
+                edge.bandBottom(from, to, height));
+    }
+
+    /**
+     * Lays out the menu against the edge and the content next to it, as in the static layout.
+     */
+    public static void layoutStatic(Edge edge, View menu, View content, int menuSize, int width, int height) {
+        final int from = edge.edge(width, height);
+        final int menuEdge = from + edge.openOffset(menuSize);
+        layout(edge, menu, from, menuEdge, width, height);
+        layout(edge, content, menuEdge, edge.opposite(width, height), width, height);
+    }
+
+    /**
+     * Sets a rect to the band between two coordinates along the axis of the edge, filling the view across it.
+     */
+    public static void setBand(Edge edge, Rect rect, int from, int to, int width, int height) {
+        rect.set(edge.bandLeft(from, to), edge.bandTop(from, to), edge.bandRight(from, to, width),
+                edge.bandBottom(from, to, height));
+    }
+
+    /**
+     * Sets the bounds of a drawable to the band between two coordinates along the axis of the edge, filling the view
+     * across it.
+     */
+    public static void setBand(Edge edge, Drawable drawable, int from, int to, int width, int height) {
+        drawable.setBounds(edge.bandLeft(from, to), edge.bandTop(from, to), edge.bandRight(from, to, width),
+                edge.bandBottom(from, to, height));
+    }
+
+    /**
+     * Returns the orientation of a gradient that fades out going away from the edge.
+     */
+    public static GradientDrawable.Orientation awayFromEdge(Edge edge) {
+        switch (edge) {
+            case LEFT:
+                return GradientDrawable.Orientation.LEFT_RIGHT;
+
+            case TOP:
+                return GradientDrawable.Orientation.TOP_BOTTOM;
+
+            case RIGHT:
+                return GradientDrawable.Orientation.RIGHT_LEFT;
+
+            default:
+                return GradientDrawable.Orientation.BOTTOM_TOP;
+        }
+    }
+
+    /**
+     * Returns the orientation of a gradient that fades out going towards the edge.
+     */
+    public static GradientDrawable.Orientation towardsEdge(Edge edge) {
+        switch (edge) {
+            case LEFT:
+                return GradientDrawable.Orientation.RIGHT_LEFT;
+
+            case TOP:
+                return GradientDrawable.Orientation.BOTTOM_TOP;
+
+            case RIGHT:
+                return GradientDrawable.Orientation.LEFT_RIGHT;
+
+            default:
+                return GradientDrawable.Orientation.TOP_BOTTOM;
+        }
+    }
+}
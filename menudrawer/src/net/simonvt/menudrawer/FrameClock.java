@@ -0,0 +1,158 @@
+package net.simonvt.menudrawer;
+
+import net.simonvt.menudrawer.core.Clock;
+
+import android.content.Context;
+import android.hardware.display.DisplayManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.WindowManager;
+
+/**
+ * Frame timing of the drawer animations, following the refresh rate of the display.
+ * <p/>
+ * On API 16 and above the clock returns the vsync time of the frame being drawn, so an animation advances by exactly
+ * one frame interval each frame, however late its callback runs within the frame. The frame time is read by a frame
+ * callback that's posted ahead of the animation callbacks, see {@link #onAnimationPosted()}. Outside frames, and
+ * below API 16, it returns the time of the {@link AnimationClock}.
+ * <p/>
+ * The frame interval is read from the refresh rate of the default display, and kept up to date on API 17 and above
+ * where displays can switch between refresh rates.
+ */
+final class FrameClock implements Clock {
+
+    static final FrameClock INSTANCE = new FrameClock();
+
+    /**
+     * Refresh rate assumed when the display doesn't report one.
+     */
+    private static final float DEFAULT_REFRESH_RATE = 60.0f;
+
+    private static final long NANOS_PER_SECOND = 1000L * NANOS_PER_MS;
+
+    private boolean mRegistered;
+
+    private long mFrameIntervalNanos = (long) (NANOS_PER_SECOND / DEFAULT_REFRESH_RATE);
+
+    /**
+     * The vsync time of the last frame.
+     */
+    private long mFrameTimeNanos;
+
+    /**
+     * The time the last frame started being processed.
+     */
+    private long mFrameStartNanos;
+
+    /**
+     * The Choreographer.FrameCallback reading the frame time, only created on API 16 and above.
+     */
+    private Object mFrameCallback;
+
+    private boolean mFrameCallbackPosted;
+
+    /**
+     * The last time returned by {@link #nanoTime()}.
+     */
+    private long mLastNanoTime;
+
+    private FrameClock() {
+    }
+
+    /**
+     * Reads the refresh rate of the default display and starts observing changes to it.
+     */
+    void register(Context context) {
+        if (mRegistered) return;
+        mRegistered = true;
+
+        final Context appContext = context.getApplicationContext();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            final DisplayManager displayManager = (DisplayManager) appContext.getSystemService(Context.DISPLAY_SERVICE);
+            displayManager.registerDisplayListener(new RefreshRateListener(displayManager),
+                    new Handler(Looper.getMainLooper()));
+            updateRefreshRate(displayManager.getDisplay(Display.DEFAULT_DISPLAY));
+        } else {
+            final WindowManager windowManager = (WindowManager) appContext.getSystemService(Context.WINDOW_SERVICE);
+            updateRefreshRate(windowManager.getDefaultDisplay());
+        }
+    }
+
+    private void updateRefreshRate(Display display) {
+        final float refreshRate = display != null ? display.getRefreshRate() : 0.0f;
+        mFrameIntervalNanos = (long) (NANOS_PER_SECOND / (refreshRate >= 1.0f ? refreshRate : DEFAULT_REFRESH_RATE));
+    }
+
+    /**
+     * Returns the time between two frames of the display, in nanoseconds.
+     */
+    long getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    /**
+     * Returns the time between two frames of the display, rounded to milliseconds.
+     */
+    long getFrameIntervalMillis() {
+        return (mFrameIntervalNanos + NANOS_PER_MS / 2) / NANOS_PER_MS;
+    }
+
+    /**
+     * Called before an animation callback is posted to the next frame, to read the time of that frame. Must be called
+     * on the main thread.
+     */
+    void onAnimationPosted() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN || mFrameCallbackPosted) return;
+
+        if (mFrameCallback == null) mFrameCallback = new FrameTimeCallback();
+        mFrameCallbackPosted = true;
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+    @Override
+    public long nanoTime() {
+        // Callbacks run up to a frame after the frame started are part of the frame.
+        final boolean inFrame = System.nanoTime() - mFrameStartNanos < mFrameIntervalNanos;
+        final long time = inFrame ? mFrameTimeNanos : AnimationClock.INSTANCE.nanoTime();
+        // An animation started between frames must not see the next frame's vsync time as earlier than its start.
+        mLastNanoTime = Math.max(mLastNanoTime, time);
+        return mLastNanoTime;
+    }
+
+    private final class FrameTimeCallback implements Choreographer.FrameCallback {
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameCallbackPosted = false;
+            mFrameTimeNanos = frameTimeNanos;
+            mFrameStartNanos = System.nanoTime();
+        }
+    }
+
+    private final class RefreshRateListener implements DisplayManager.DisplayListener {
+
+        private final DisplayManager mDisplayManager;
+
+        RefreshRateListener(DisplayManager displayManager) {
+            mDisplayManager = displayManager;
+        }
+
+        @Override
+        public void onDisplayAdded(int displayId) {
+        }
+
+        @Override
+        public void onDisplayRemoved(int displayId) {
+        }
+
+        @Override
+        public void onDisplayChanged(int displayId) {
+            if (displayId == Display.DEFAULT_DISPLAY) {
+                updateRefreshRate(mDisplayManager.getDisplay(displayId));
+            }
+        }
+    }
+}
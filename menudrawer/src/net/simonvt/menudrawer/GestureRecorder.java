@@ -0,0 +1,119 @@
+package net.simonvt.menudrawer;
+
+import net.simonvt.menudrawer.core.GestureTrace;
+import net.simonvt.menudrawer.core.TouchEvent;
+import net.simonvt.menudrawer.core.TraceHeader;
+import net.simonvt.menudrawer.core.TraceWriter;
+
+import android.view.MotionEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records the touch events a drawer receives into a gesture trace, which can be replayed off-device by the
+ * menudrawer-replay harness.
+ * <p/>
+ * Events are expected in window coordinates, as received by {@code Activity#dispatchTouchEvent(MotionEvent)}, and
+ * are translated to the coordinates of the drawer. Call {@link #finish()} once the drawer has settled after the
+ * gesture.
+ */
+public class GestureRecorder {
+
+    private final DraggableDrawer mDrawer;
+
+    private final OutputStream mOut;
+
+    private TraceWriter mWriter;
+
+    private final int[] mLocation = new int[2];
+
+    public GestureRecorder(MenuDrawer drawer, OutputStream out) {
+        if (!(drawer instanceof DraggableDrawer)) {
+            throw new IllegalArgumentException("Only draggable drawers can be recorded");
+        }
+
+        mDrawer = (DraggableDrawer) drawer;
+        mOut = out;
+    }
+
+    /**
+     * Records an event. The header of the trace is written with the first event, once the drawer has been laid out.
+     *
+     * @param ev The event, in window coordinates.
+     */
+    public void record(MotionEvent ev) throws IOException {
+        if (mWriter == null) {
+            mWriter = new TraceWriter(mOut, createHeader());
+            mDrawer.getLocationInWindow(mLocation);
+        }
+
+        mWriter.write(toTouchEvent(ev, mLocation[0], mLocation[1]));
+    }
+
+    /**
+     * Ends the trace with the current state of the drawer and closes the stream.
+     */
+    public void finish() throws IOException {
+        if (mWriter == null) {
+            mOut.close();
+            return;
+        }
+
+        final int state = mDrawer.getDrawerState();
+        final boolean settled = state == MenuDrawer.STATE_OPEN || state == MenuDrawer.STATE_CLOSED;
+        mWriter.finish(settled ? state : GestureTrace.STATE_UNKNOWN, mDrawer.mOffsetPixels);
+        mWriter.close();
+    }
+
+    private TraceHeader createHeader() {
+        final TraceHeader header = new TraceHeader();
+        header.width = mDrawer.getWidth();
+        header.height = mDrawer.getHeight();
+        header.edge = mDrawer.mEdge;
+        header.overlay = mDrawer instanceof OverlayDrawer;
+        header.menuSize = mDrawer.getMenuSize();
+        header.touchMode = mDrawer.getTouchMode();
+        header.touchSize = mDrawer.mTouchSize;
+        header.touchSlop = mDrawer.mTouchSlop;
+        header.maxVelocity = mDrawer.mMaxVelocity;
+        header.maxAnimationDuration = mDrawer.mMaxAnimationDuration;
+        header.closeEnough = mDrawer.mCloseEnough;
+        header.peekSize = header.overlay ? ((OverlayDrawer) mDrawer).getPeekSize() : 0;
+        header.initialOffset = mDrawer.mOffsetPixels;
+        return header;
+    }
+
+    private static TouchEvent toTouchEvent(MotionEvent ev, int left, int top) {
+        final int pointerCount = ev.getPointerCount();
+        final int historySize = ev.getHistorySize();
+        final int sampleCount = historySize + 1;
+
+        final int[] pointerIds = new int[pointerCount];
+        for (int p = 0; p < pointerCount; p++) {
+            pointerIds[p] = ev.getPointerId(p);
+        }
+
+        final long[] times = new long[sampleCount];
+        final float[] x = new float[sampleCount * pointerCount];
+        final float[] y = new float[sampleCount * pointerCount];
+        for (int h = 0; h < historySize; h++) {
+            times[h] = ev.getHistoricalEventTime(h);
+            for (int p = 0; p < pointerCount; p++) {
+                x[h * pointerCount + p] = ev.getHistoricalX(p, h) - left;
+                y[h * pointerCount + p] = ev.getHistoricalY(p, h) - top;
+            }
+        }
+
+        times[historySize] = ev.getEventTime();
+        for (int p = 0; p < pointerCount; p++) {
+            x[historySize * pointerCount + p] = ev.getX(p) - left;
+            y[historySize * pointerCount + p] = ev.getY(p) - top;
+        }
+
+        final int action = ev.getAction() & MotionEvent.ACTION_MASK;
+        final int actionIndex = (ev.getAction() & MotionEvent.ACTION_POINTER_INDEX_MASK)
+                >> MotionEvent.ACTION_POINTER_INDEX_SHIFT;
+        return new TouchEvent(action, actionIndex, pointerIds, times, x, y);
+    }
+}
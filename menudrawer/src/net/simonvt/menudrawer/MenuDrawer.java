@@ -1,12 +1,21 @@
 package net.simonvt.menudrawer;
 
 import net.simonvt.menudrawer.compat.ActionBarHelper;
+import net.simonvt.menudrawer.core.AccelerateInterpolator;
+import net.simonvt.menudrawer.core.Bounds;
+import net.simonvt.menudrawer.core.Clock;
+import net.simonvt.menudrawer.core.DrawerGeometry;
+import net.simonvt.menudrawer.core.DrawerTouchHandler;
+import net.simonvt.menudrawer.core.Edge;
+import net.simonvt.menudrawer.core.FloatScroller;
+import net.simonvt.menudrawer.core.Interpolator;
+import net.simonvt.menudrawer.core.SmoothInterpolator;
 
 import android.app.Activity;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
@@ -22,8 +31,6 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 import android.view.ViewTreeObserver;
-import android.view.animation.AccelerateInterpolator;
-import android.view.animation.Interpolator;
 
 public abstract class MenuDrawer extends ViewGroup {
 
@@ -68,6 +75,23 @@ public abstract class MenuDrawer extends ViewGroup {
         boolean isViewDraggable(View v, int delta, int x, int y);
     }
 
+    /**
+     * Callback that is invoked when the drawer replaced its menu view on its own, either because a menu discarded on
+     * memory pressure has been inflated again or because a shared menu has been moved back from another activity.
+     *
+     * @see #setDiscardMenuOnTrimMemory(boolean)
+     * @see #setShareMenu(boolean)
+     */
+    public interface OnMenuInflatedListener {
+
+        /**
+         * Called after the menu view has been replaced, before it's drawn.
+         *
+         * @param menuView The new menu view.
+         */
+        void onMenuInflated(View menuView);
+    }
+
     public enum Type {
         /**
          * Positions the drawer behind the content.
@@ -96,7 +120,7 @@ public abstract class MenuDrawer extends ViewGroup {
     private static final boolean DEBUG = false;
 
     /**
-     * The time between each frame when animating the drawer.
+     * The time between each frame on a 60Hz display. The drawer animations follow the refresh rate of the display.
      */
     protected static final int ANIMATION_DELAY = 1000 / 60;
 
@@ -123,42 +147,42 @@ public abstract class MenuDrawer extends ViewGroup {
     /**
      * Disallow opening the drawer by dragging the screen.
      */
-    public static final int TOUCH_MODE_NONE = 0;
+    public static final int TOUCH_MODE_NONE = DrawerTouchHandler.TOUCH_MODE_NONE;
 
     /**
      * Allow opening drawer only by dragging on the edge of the screen.
      */
-    public static final int TOUCH_MODE_BEZEL = 1;
+    public static final int TOUCH_MODE_BEZEL = DrawerTouchHandler.TOUCH_MODE_BEZEL;
 
     /**
      * Allow opening drawer by dragging anywhere on the screen.
      */
-    public static final int TOUCH_MODE_FULLSCREEN = 2;
+    public static final int TOUCH_MODE_FULLSCREEN = DrawerTouchHandler.TOUCH_MODE_FULLSCREEN;
 
     /**
      * Indicates that the drawer is currently closed.
      */
-    public static final int STATE_CLOSED = 0;
+    public static final int STATE_CLOSED = DrawerTouchHandler.STATE_CLOSED;
 
     /**
      * Indicates that the drawer is currently closing.
      */
-    public static final int STATE_CLOSING = 1;
+    public static final int STATE_CLOSING = DrawerTouchHandler.STATE_CLOSING;
 
     /**
      * Indicates that the drawer is currently being dragged by the user.
      */
-    public static final int STATE_DRAGGING = 2;
+    public static final int STATE_DRAGGING = DrawerTouchHandler.STATE_DRAGGING;
 
     /**
      * Indicates that the drawer is currently opening.
      */
-    public static final int STATE_OPENING = 4;
+    public static final int STATE_OPENING = DrawerTouchHandler.STATE_OPENING;
 
     /**
      * Indicates that the drawer is currently open.
      */
-    public static final int STATE_OPEN = 8;
+    public static final int STATE_OPEN = DrawerTouchHandler.STATE_OPEN;
 
     /**
      * Indicates whether to use {@link View#setTranslationX(float)} when positioning views.
@@ -207,15 +231,27 @@ public abstract class MenuDrawer extends ViewGroup {
 
     private boolean mCustomDropShadow;
 
+    /**
+     * The color and orientation {@link #mDropShadowDrawable} was created with by {@link #setDropShadowColor(int)}.
+     */
+    private int mDropShadowDrawableColor;
+
+    private GradientDrawable.Orientation mDropShadowOrientation;
+
+    /**
+     * Whether the shared decorations are referenced in {@link DecorationCache}, which they are while attached.
+     */
+    private boolean mDecorationsAcquired;
+
     /**
      * The size of the content drop shadow.
      */
     protected int mDropShadowSize;
 
     /**
-     * Bitmap used to indicate the active view.
+     * The indicator drawn next to the active view.
      */
-    protected Bitmap mActiveIndicator;
+    private final ActiveIndicator mActiveIndicator = new ActiveIndicator();
 
     /**
      * The currently active view.
@@ -244,9 +280,9 @@ public abstract class MenuDrawer extends ViewGroup {
     private final Rect mTempRect = new Rect();
 
     /**
-     * The custom menu view set by the user.
+     * Manages the menu view set by the user.
      */
-    private View mMenuView;
+    private final MenuViewHelper mMenuViewHelper = new MenuViewHelper(this);
 
     /**
      * The parent of the menu view.
@@ -316,6 +352,16 @@ public abstract class MenuDrawer extends ViewGroup {
      */
     private Activity mActivity;
 
+    /**
+     * The config the drawer was attached with, read when the drawer is initialized.
+     */
+    private DrawerConfig mConfig;
+
+    /**
+     * The clock the drawer animations read the time from, the animation clock locked to the frame time.
+     */
+    protected Clock mClock = FrameClock.INSTANCE;
+
     /**
      * Scroller used when animating the indicator to a new position.
      */
@@ -369,6 +415,25 @@ public abstract class MenuDrawer extends ViewGroup {
 
     private ActionBarHelper mActionBarHelper;
 
+    /**
+     * Whether the up indicator has been set up, but not yet applied to the action bar. Looking up the action bar is
+     * slow, so it's deferred until after the first frame.
+     */
+    private boolean mUpIndicatorPending;
+
+    /**
+     * Whether {@link ActionBarHelper#setDisplayShowHomeAsUpEnabled(boolean)} should be called when the pending up
+     * indicator is applied.
+     */
+    private boolean mShowHomeAsUpPending;
+
+    private final Runnable mUpIndicatorRunnable = new Runnable() {
+        @Override
+        public void run() {
+            applyUpIndicator();
+        }
+    };
+
     private int mCurrentUpContentDesc;
 
     private int mDrawerOpenContentDesc;
@@ -380,10 +445,21 @@ public abstract class MenuDrawer extends ViewGroup {
      */
     private Position mPosition;
 
+    /**
+     * The position of the drawer, with {@link Position#START} and {@link Position#END} resolved against the layout
+     * direction.
+     */
     private Position mResolvedPosition;
 
+    /**
+     * The geometry of the resolved position of the drawer.
+     */
+    protected Edge mEdge;
+
     private final Rect mIndicatorClipRect = new Rect();
 
+    private final Bounds mIndicatorBounds = new Bounds();
+
     protected boolean mIsStatic;
 
     protected final Rect mDropShadowRect = new Rect();
@@ -453,8 +529,29 @@ public abstract class MenuDrawer extends ViewGroup {
      * @return The created MenuDrawer instance.
      */
     public static MenuDrawer attach(Activity activity, Type type, Position position, int dragMode) {
-        MenuDrawer menuDrawer = createMenuDrawer(activity, dragMode, position, type);
+        return attach(activity, type, position, dragMode, null);
+    }
+
+    /**
+     * Attaches the MenuDrawer to the Activity, configured by a {@link DrawerConfig}. Fields that aren't set in the
+     * config are read from the theme, if all of them are set the theme isn't read.
+     *
+     * @param activity The activity the menu drawer will be attached to.
+     * @param config   The configuration of the drawer.
+     * @return The created MenuDrawer instance.
+     */
+    public static MenuDrawer attach(Activity activity, DrawerConfig config) {
+        return attach(activity, config.getType(), config.getPosition(), config.getDragMode(), config);
+    }
+
+    private static MenuDrawer attach(Activity activity, Type type, Position position, int dragMode,
+            DrawerConfig config) {
+        TraceHelper.beginSection(TraceHelper.ATTACH);
+
+        TraceHelper.beginSection(TraceHelper.CREATE);
+        MenuDrawer menuDrawer = createMenuDrawer(activity, dragMode, position, type, config);
         menuDrawer.setId(R.id.md__drawer);
+        TraceHelper.endSection();
 
         switch (dragMode) {
             case MenuDrawer.MENU_DRAG_CONTENT:
@@ -466,29 +563,32 @@ public abstract class MenuDrawer extends ViewGroup {
                 break;
 
             default:
+                TraceHelper.endSection();
                 throw new RuntimeException("Unknown menu mode: " + dragMode);
         }
 
+        TraceHelper.endSection();
         return menuDrawer;
     }
 
     /**
      * Constructs the appropriate MenuDrawer based on the position.
      */
-    private static MenuDrawer createMenuDrawer(Activity activity, int dragMode, Position position, Type type) {
+    private static MenuDrawer createMenuDrawer(Activity activity, int dragMode, Position position, Type type,
+            DrawerConfig config) {
         MenuDrawer drawer;
 
         if (type == Type.STATIC) {
-            drawer = new StaticDrawer(activity);
+            drawer = new StaticDrawer(activity, dragMode, config);
 
         } else if (type == Type.OVERLAY) {
-            drawer = new OverlayDrawer(activity, dragMode);
+            drawer = new OverlayDrawer(activity, dragMode, config);
             if (position == Position.LEFT || position == Position.START) {
                 drawer.setupUpIndicator(activity);
             }
 
         } else {
-            drawer = new SlidingDrawer(activity, dragMode);
+            drawer = new SlidingDrawer(activity, dragMode, config);
             if (position == Position.LEFT || position == Position.START) {
                 drawer.setupUpIndicator(activity);
             }
@@ -497,6 +597,10 @@ public abstract class MenuDrawer extends ViewGroup {
         drawer.mDragMode = dragMode;
         drawer.setPosition(position);
 
+        if (config != null && config.isSet(DrawerConfig.TOUCH_MODE)) {
+            drawer.setTouchMode(config.mTouchMode);
+        }
+
         return drawer;
     }
 
@@ -509,15 +613,18 @@ public abstract class MenuDrawer extends ViewGroup {
          * E.g. if using with a ListActivity, Activity#setContentView is overridden and dispatched to
          * MenuDrawer#setContentView, which then again would call Activity#setContentView.
          */
+        TraceHelper.beginSection(TraceHelper.ATTACH_TO_CONTENT);
         ViewGroup content = (ViewGroup) activity.findViewById(android.R.id.content);
         content.removeAllViews();
         content.addView(menuDrawer, LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
+        TraceHelper.endSection();
     }
 
     /**
      * Attaches the menu drawer to the window.
      */
     private static void attachToDecor(Activity activity, MenuDrawer menuDrawer) {
+        TraceHelper.beginSection(TraceHelper.ATTACH_TO_DECOR);
         ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
         ViewGroup decorChild = (ViewGroup) decorView.getChildAt(0);
 
@@ -525,10 +632,13 @@ public abstract class MenuDrawer extends ViewGroup {
         decorView.addView(menuDrawer, LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
 
         menuDrawer.mContentContainer.addView(decorChild, decorChild.getLayoutParams());
+        TraceHelper.endSection();
     }
 
-    MenuDrawer(Activity activity, int dragMode) {
-        this(activity);
+    MenuDrawer(Activity activity, int dragMode, DrawerConfig config) {
+        super(activity, null, R.attr.menuDrawerStyle);
+        mConfig = config;
+        initDrawer(activity, null, R.attr.menuDrawerStyle);
 
         mActivity = activity;
         mDragMode = dragMode;
@@ -551,18 +661,42 @@ public abstract class MenuDrawer extends ViewGroup {
         setWillNotDraw(false);
         setFocusable(false);
 
+        DrawerTrimCallbacks.register(context);
+        AnimatorScale.register(context);
+        FrameClock.INSTANCE.register(context);
+
+        mMenuContainer = new NoClickThroughFrameLayout(context);
+        mMenuContainer.setId(R.id.md__menu);
+
+        mContentContainer = new NoClickThroughFrameLayout(context);
+        mContentContainer.setId(R.id.md__content);
+
+        if (mConfig == null || !mConfig.isComplete()) {
+            readStyledAttributes(context, attrs);
+        }
+        if (mConfig != null) {
+            applyConfig(mConfig);
+        }
+
+        mActiveIndicator.load(getResources());
+
+        mMenuOverlay = new ColorDrawable(0xFF000000);
+
+        mIndicatorScroller = new FloatScroller(SMOOTH_INTERPOLATOR, mClock);
+    }
+
+    private void readStyledAttributes(Context context, AttributeSet attrs) {
+        TraceHelper.beginSection(TraceHelper.STYLED_ATTRIBUTES);
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.MenuDrawer, R.attr.menuDrawerStyle,
                 R.style.Widget_MenuDrawer);
 
-        final Drawable contentBackground = a.getDrawable(R.styleable.MenuDrawer_mdContentBackground);
-        final Drawable menuBackground = a.getDrawable(R.styleable.MenuDrawer_mdMenuBackground);
+        mContentContainer.setBackgroundDrawable(a.getDrawable(R.styleable.MenuDrawer_mdContentBackground));
+        mMenuContainer.setBackgroundDrawable(a.getDrawable(R.styleable.MenuDrawer_mdMenuBackground));
 
         mMenuSize = a.getDimensionPixelSize(R.styleable.MenuDrawer_mdMenuSize, dpToPx(240));
 
-        final int indicatorResId = a.getResourceId(R.styleable.MenuDrawer_mdActiveIndicator, 0);
-        if (indicatorResId != 0) {
-            mActiveIndicator = BitmapFactory.decodeResource(getResources(), indicatorResId);
-        }
+        mActiveIndicator.setResId(a.getResourceId(R.styleable.MenuDrawer_mdActiveIndicator, 0));
+        mActiveIndicator.setTint(a.getColor(R.styleable.MenuDrawer_mdActiveIndicatorTint, 0));
 
         mDropShadowEnabled = a.getBoolean(R.styleable.MenuDrawer_mdDropShadowEnabled, true);
 
@@ -598,18 +732,53 @@ public abstract class MenuDrawer extends ViewGroup {
         setPosition(Position.fromValue(position));
 
         a.recycle();
+        TraceHelper.endSection();
+    }
 
-        mMenuContainer = new NoClickThroughFrameLayout(context);
-        mMenuContainer.setId(R.id.md__menu);
-        mMenuContainer.setBackgroundDrawable(menuBackground);
-
-        mContentContainer = new NoClickThroughFrameLayout(context);
-        mContentContainer.setId(R.id.md__content);
-        mContentContainer.setBackgroundDrawable(contentBackground);
+    /**
+     * Applies the fields set in the config, overriding the values read from the theme.
+     */
+    private void applyConfig(DrawerConfig config) {
+        final Resources res = getResources();
 
-        mMenuOverlay = new ColorDrawable(0xFF000000);
+        if (config.isSet(DrawerConfig.CONTENT_BACKGROUND)) {
+            mContentContainer.setBackgroundDrawable(
+                    config.mContentBackground != 0 ? res.getDrawable(config.mContentBackground) : null);
+        }
+        if (config.isSet(DrawerConfig.MENU_BACKGROUND)) {
+            mMenuContainer.setBackgroundDrawable(
+                    config.mMenuBackground != 0 ? res.getDrawable(config.mMenuBackground) : null);
+        }
+        if (config.isSet(DrawerConfig.MENU_SIZE)) mMenuSize = config.mMenuSize;
+        if (config.isSet(DrawerConfig.ACTIVE_INDICATOR)) mActiveIndicator.setResId(config.mActiveIndicator);
+        if (config.isSet(DrawerConfig.ACTIVE_INDICATOR_TINT)) mActiveIndicator.setTint(config.mActiveIndicatorTint);
+        if (config.isSet(DrawerConfig.DROP_SHADOW_ENABLED)) mDropShadowEnabled = config.mDropShadowEnabled;
+        if (config.isSet(DrawerConfig.DROP_SHADOW)) {
+            if (config.mDropShadow != 0) {
+                mDropShadowDrawable = res.getDrawable(config.mDropShadow);
+                mCustomDropShadow = true;
+            } else {
+                mDropShadowDrawable = null;
+                mCustomDropShadow = false;
+                mDropShadowColor = config.mDropShadowColor;
+            }
+        }
+        if (config.isSet(DrawerConfig.DROP_SHADOW_SIZE)) mDropShadowSize = config.mDropShadowSize;
+        if (config.isSet(DrawerConfig.TOUCH_BEZEL_SIZE)) mTouchBezelSize = config.mTouchBezelSize;
+        if (config.isSet(DrawerConfig.ALLOW_INDICATOR_ANIMATION)) {
+            mAllowIndicatorAnimation = config.mAllowIndicatorAnimation;
+        }
+        if (config.isSet(DrawerConfig.MAX_ANIMATION_DURATION)) mMaxAnimationDuration = config.mMaxAnimationDuration;
+        if (config.isSet(DrawerConfig.SLIDE_DRAWABLE) && config.mSlideDrawable != 0) {
+            setSlideDrawable(config.mSlideDrawable);
+        }
+        if (config.isSet(DrawerConfig.UP_CONTENT_DESCRIPTIONS)) {
+            mDrawerOpenContentDesc = config.mDrawerOpenContentDesc;
+            mDrawerClosedContentDesc = config.mDrawerClosedContentDesc;
+        }
+        if (config.isSet(DrawerConfig.DRAW_OVERLAY)) mDrawOverlay = config.mDrawOverlay;
 
-        mIndicatorScroller = new FloatScroller(SMOOTH_INTERPOLATOR);
+        setPosition(config.mPosition);
     }
 
     @Override
@@ -654,16 +823,122 @@ public abstract class MenuDrawer extends ViewGroup {
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
         getViewTreeObserver().addOnScrollChangedListener(mScrollListener);
+        if (mUpIndicatorPending) post(mUpIndicatorRunnable);
+
+        if (getContext() instanceof Activity) RetainedMenu.onDrawerAttached((Activity) getContext());
+
+        mDecorationsAcquired = true;
+        DecorationCache.acquire(mActiveIndicator.getShared());
+        DecorationCache.acquire(getSharedDropShadow());
+
+        DrawerTrimCallbacks.add(this);
     }
 
     @Override
     protected void onDetachedFromWindow() {
         getViewTreeObserver().removeOnScrollChangedListener(mScrollListener);
+        removeCallbacks(mUpIndicatorRunnable);
+
+        DecorationCache.release(mActiveIndicator.getShared());
+        DecorationCache.release(getSharedDropShadow());
+        mDecorationsAcquired = false;
+
+        mMenuViewHelper.onDetachedFromWindow();
+
+        DrawerTrimCallbacks.remove(this);
         super.onDetachedFromWindow();
     }
 
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility == VISIBLE) {
+            restoreDecorations();
+            mMenuViewHelper.onWindowVisible();
+        }
+    }
+
+    /**
+     * Releases memory held by the drawer, depending on the level. This is called automatically on API 14 and above
+     * while the drawer is attached, on older versions it can be called from {@link Activity#onLowMemory()} with
+     * {@link ComponentCallbacks2#TRIM_MEMORY_COMPLETE}.
+     * <p/>
+     * When the UI is hidden the hardware layers are destroyed. When the process is in the background the indicator
+     * and drop shadow are released, and decoded again once the drawer is visible. At
+     * {@link ComponentCallbacks2#TRIM_MEMORY_MODERATE} and above a closed menu view is discarded if enabled with
+     * {@link #setDiscardMenuOnTrimMemory(boolean)}.
+     *
+     * @param level The trim level, one of the ComponentCallbacks2.TRIM_MEMORY_* constants.
+     */
+    public void onTrimMemory(int level) {
+        trimMemory(level);
+        DecorationCache.trimMemory();
+    }
+
+    /**
+     * Releases the memory held by this drawer, without trimming the {@link DecorationCache} other drawers share.
+     */
+    void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                && (mDrawerState == STATE_CLOSED || mDrawerState == STATE_OPEN)) {
+            mMenuContainer.releaseLayer();
+            mContentContainer.releaseLayer();
+        }
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            releaseDecorations();
+        }
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            mMenuViewHelper.discard();
+        }
+    }
+
+    private void releaseDecorations() {
+        if (mDecorationsAcquired) DecorationCache.release(mActiveIndicator.getShared());
+        mActiveIndicator.unload();
+
+        final Object sharedDropShadow = getSharedDropShadow();
+        if (sharedDropShadow != null) {
+            if (mDecorationsAcquired) DecorationCache.release(sharedDropShadow);
+            // Recreated with mDropShadowColor when it's next drawn.
+            mDropShadowColor = mDropShadowDrawableColor;
+            mDropShadowDrawable = null;
+            mDropShadowOrientation = null;
+        }
+    }
+
+    private void restoreDecorations() {
+        if (!mActiveIndicator.isLoaded() && mActiveIndicator.getResId() != 0) {
+            mActiveIndicator.load(getResources());
+            if (mDecorationsAcquired) DecorationCache.acquire(mActiveIndicator.getShared());
+        }
+    }
+
+    /**
+     * Defines whether a closed menu view that was set with {@link #setMenuView(int)} may be discarded when memory is
+     * trimmed. It's inflated again before the drawer is next shown, without the state of the previous views, so any
+     * listeners or adapters have to be set again from {@link OnMenuInflatedListener#onMenuInflated(View)}. Shared
+     * menus are never discarded.
+     *
+     * @param discard Whether the menu view may be discarded. Defaults to false.
+     */
+    public void setDiscardMenuOnTrimMemory(boolean discard) {
+        mMenuViewHelper.setDiscardOnTrimMemory(discard);
+    }
+
+    /**
+     * Register a callback to be invoked when the drawer replaced its menu view on its own.
+     *
+     * @param listener The callback that will run.
+     */
+    public void setOnMenuInflatedListener(OnMenuInflatedListener listener) {
+        mMenuViewHelper.setOnMenuInflatedListener(listener);
+    }
+
     private boolean shouldDrawIndicator() {
-        return mActiveView != null && mActiveIndicator != null && isViewDescendant(mActiveView);
+        return mActiveView != null && mActiveIndicator.isLoaded()
+                && isViewDescendant(mActiveView);
     }
 
     @Override
@@ -671,7 +946,7 @@ public abstract class MenuDrawer extends ViewGroup {
         super.dispatchDraw(canvas);
         final int offsetPixels = (int) mOffsetPixels;
 
-        if (mDrawOverlay && offsetPixels != 0) {
+        if (mDrawOverlay && offsetPixels != 0 && !mIsStatic) {
             drawOverlay(canvas);
         }
         if (mDropShadowEnabled && (offsetPixels != 0 || mIsStatic)) {
@@ -698,69 +973,58 @@ public abstract class MenuDrawer extends ViewGroup {
 
     protected void updateDropShadowRect() {
         // This updates the rect for the static and sliding drawer. The overlay drawer has its own implementation.
-        switch (getPosition()) {
-            case LEFT:
-                mDropShadowRect.top = 0;
-                mDropShadowRect.bottom = getHeight();
-                mDropShadowRect.right = ViewHelper.getLeft(mContentContainer);
-                mDropShadowRect.left = mDropShadowRect.right - mDropShadowSize;
-                break;
-
-            case TOP:
-                mDropShadowRect.left = 0;
-                mDropShadowRect.right = getWidth();
-                mDropShadowRect.bottom = ViewHelper.getTop(mContentContainer);
-                mDropShadowRect.top = mDropShadowRect.bottom - mDropShadowSize;
-                break;
-
-            case RIGHT:
-                mDropShadowRect.top = 0;
-                mDropShadowRect.bottom = getHeight();
-                mDropShadowRect.left = ViewHelper.getRight(mContentContainer);
-                mDropShadowRect.right = mDropShadowRect.left + mDropShadowSize;
-                break;
-
-            case BOTTOM:
-                mDropShadowRect.left = 0;
-                mDropShadowRect.right = getWidth();
-                mDropShadowRect.top = ViewHelper.getBottom(mContentContainer);
-                mDropShadowRect.bottom = mDropShadowRect.top + mDropShadowSize;
-                break;
-        }
+        final int contentEdge = EdgeHelper.near(mEdge, mContentContainer);
+        final int shadowEdge = contentEdge - mEdge.openOffset(mDropShadowSize);
+        EdgeHelper.setBand(mEdge, mDropShadowRect, contentEdge, shadowEdge, getWidth(), getHeight());
     }
 
     private void drawIndicator(Canvas canvas) {
-        Integer position = (Integer) mActiveView.getTag(R.id.mdActiveViewPosition);
-        final int pos = position == null ? 0 : position;
+        final Object position = mActiveView.getTag(R.id.mdActiveViewPosition);
+        final int pos = position instanceof Integer ? (Integer) position : 0;
         if (pos == mActivePosition) {
             updateIndicatorClipRect();
             canvas.save();
             canvas.clipRect(mIndicatorClipRect);
 
-            int drawLeft = 0;
-            int drawTop = 0;
-            switch (getPosition()) {
-                case LEFT:
-                case TOP:
-                    drawLeft = mIndicatorClipRect.left;
-                    drawTop = mIndicatorClipRect.top;
-                    break;
-
-                case RIGHT:
-                    drawLeft = mIndicatorClipRect.right - mActiveIndicator.getWidth();
-                    drawTop = mIndicatorClipRect.top;
-                    break;
-
-                case BOTTOM:
-                    drawLeft = mIndicatorClipRect.left;
-                    drawTop = mIndicatorClipRect.bottom - mActiveIndicator.getHeight();
-            }
+            final int drawLeft = mEdge == Edge.RIGHT
+                    ? mIndicatorClipRect.right - mActiveIndicator.getWidth()
+                    : mIndicatorClipRect.left;
+            final int drawTop = mEdge == Edge.BOTTOM
+                    ? mIndicatorClipRect.bottom - mActiveIndicator.getHeight()
+                    : mIndicatorClipRect.top;
 
-            canvas.drawBitmap(mActiveIndicator, drawLeft, drawTop, null);
+            mActiveIndicator.draw(canvas, drawLeft, drawTop);
             canvas.restore();
         }
     }
 
+    /**
+     * Sets the indicator drawn next to the active view. Bitmaps are decoded once per process and density, other
+     * drawables share their state between drawers.
+     *
+     * @param resId The resource identifier of the indicator, or 0 to remove it.
+     */
+    public void setActiveIndicator(int resId) {
+        if (mDecorationsAcquired) DecorationCache.release(mActiveIndicator.getShared());
+        mActiveIndicator.setResId(resId);
+        mActiveIndicator.load(getResources());
+        if (mDecorationsAcquired) DecorationCache.acquire(mActiveIndicator.getShared());
+        invalidate();
+    }
+
+    /**
+     * Sets the color of a monochrome indicator. Only the alpha channel of the indicator is drawn, in this color, which
+     * lets bitmap indicators be decoded as {@link android.graphics.Bitmap.Config#ALPHA_8}.
+     *
+     * @param color The color of the indicator, or 0 to draw the indicator in its own colors.
+     */
+    public void setActiveIndicatorTint(int color) {
+        if (color != mActiveIndicator.getTint()) {
+            mActiveIndicator.setTint(color);
+            setActiveIndicator(mActiveIndicator.getResId());
+        }
+    }
+
     /**
      * Update the {@link Rect} where the indicator is drawn.
      */
@@ -768,7 +1032,7 @@ public abstract class MenuDrawer extends ViewGroup {
         mActiveView.getDrawingRect(mActiveRect);
         offsetDescendantRectToMyCoords(mActiveView, mActiveRect);
 
-        final float openRatio = mIsStatic ? 1.0f : Math.abs(mOffsetPixels) / mMenuSize;
+        final float openRatio = mIsStatic ? 1.0f : DrawerGeometry.openRatio(mOffsetPixels, mMenuSize);
 
         final float interpolatedRatio = 1.f - INDICATOR_INTERPOLATOR.getInterpolation((1.f - openRatio));
 
@@ -778,78 +1042,42 @@ public abstract class MenuDrawer extends ViewGroup {
         final int interpolatedWidth = (int) (indicatorWidth * interpolatedRatio);
         final int interpolatedHeight = (int) (indicatorHeight * interpolatedRatio);
 
-        final int startPos = mIndicatorStartPos;
-
-        int left = 0;
-        int top = 0;
-        int right = 0;
-        int bottom = 0;
-
-        switch (getPosition()) {
-            case LEFT:
-            case RIGHT:
-                final int finalTop = mActiveRect.top + ((mActiveRect.height() - indicatorHeight) / 2);
-                if (mIndicatorAnimating) {
-                    top = (int) (startPos + ((finalTop - startPos) * mIndicatorOffset));
-                } else {
-                    top = finalTop;
-                }
-                bottom = top + indicatorHeight;
-                break;
-
-            case TOP:
-            case BOTTOM:
-                final int finalLeft = mActiveRect.left + ((mActiveRect.width() - indicatorWidth) / 2);
-                if (mIndicatorAnimating) {
-                    left = (int) (startPos + ((finalLeft - startPos) * mIndicatorOffset));
-                } else {
-                    left = finalLeft;
-                }
-                right = left + indicatorWidth;
-                break;
-        }
-
-        switch (getPosition()) {
-            case LEFT: {
-                right = ViewHelper.getLeft(mContentContainer);
-                left = right - interpolatedWidth;
-                break;
-            }
+        final int contentEdge = EdgeHelper.near(mEdge, mContentContainer);
+        final int depth = mEdge.size(interpolatedWidth, interpolatedHeight);
 
-            case TOP: {
-                bottom = ViewHelper.getTop(mContentContainer);
-                top = bottom - interpolatedHeight;
-                break;
-            }
-
-            case RIGHT: {
-                left = ViewHelper.getRight(mContentContainer);
-                right = left + interpolatedWidth;
-                break;
-            }
-
-            case BOTTOM: {
-                top = ViewHelper.getBottom(mContentContainer);
-                bottom = top + interpolatedHeight;
-                break;
-            }
+        final int crossSize;
+        final int finalPos;
+        if (mEdge.isHorizontal()) {
+            crossSize = indicatorHeight;
+            finalPos = mActiveRect.top + ((mActiveRect.height() - indicatorHeight) / 2);
+        } else {
+            crossSize = indicatorWidth;
+            finalPos = mActiveRect.left + ((mActiveRect.width() - indicatorWidth) / 2);
         }
+        final int crossStart = mIndicatorAnimating
+                ? DrawerGeometry.indicatorPosition(mIndicatorStartPos, finalPos, mIndicatorOffset)
+                : finalPos;
 
-        mIndicatorClipRect.left = left;
-        mIndicatorClipRect.top = top;
-        mIndicatorClipRect.right = right;
-        mIndicatorClipRect.bottom = bottom;
+        DrawerGeometry.indicatorBounds(mEdge, mIndicatorBounds, contentEdge, depth, crossStart, crossSize);
+        mIndicatorClipRect.set(mIndicatorBounds.left, mIndicatorBounds.top, mIndicatorBounds.right,
+                mIndicatorBounds.bottom);
     }
 
     private void setPosition(Position position) {
         mPosition = position;
-        mResolvedPosition = getPosition();
+        resolvePosition();
     }
 
-    protected Position getPosition() {
-        final int layoutDirection = ViewHelper.getLayoutDirection(this);
+    /**
+     * Resolves the position of the drawer against the current layout direction.
+     */
+    private void resolvePosition() {
+        mResolvedPosition = resolvePosition(mPosition, ViewHelper.getLayoutDirection(this));
+        mEdge = EdgeHelper.fromPosition(mResolvedPosition);
+    }
 
-        switch (mPosition) {
+    private static Position resolvePosition(Position position, int layoutDirection) {
+        switch (position) {
             case START:
                 if (layoutDirection == LAYOUT_DIRECTION_RTL) {
                     return Position.RIGHT;
@@ -865,17 +1093,29 @@ public abstract class MenuDrawer extends ViewGroup {
                 }
         }
 
-        return mPosition;
+        return position;
+    }
+
+    /**
+     * Returns the position of the drawer, with {@link Position#START} and {@link Position#END} resolved against the
+     * layout direction.
+     *
+     * @return The resolved position of the drawer.
+     */
+    protected Position getPosition() {
+        return mResolvedPosition;
     }
 
     @Override
     public void onRtlPropertiesChanged(int layoutDirection) {
         super.onRtlPropertiesChanged(layoutDirection);
 
+        final Position oldPosition = mResolvedPosition;
+        resolvePosition();
+
         if (!mCustomDropShadow) setDropShadowColor(mDropShadowColor);
 
-        if (getPosition() != mResolvedPosition) {
-            mResolvedPosition = getPosition();
+        if (mResolvedPosition != oldPosition) {
             setOffsetPixels(mOffsetPixels * -1);
         }
 
@@ -968,6 +1208,27 @@ public abstract class MenuDrawer extends ViewGroup {
      */
     public abstract boolean isMenuVisible();
 
+    /**
+     * Switches between the drawer and a static layout, with the menu shown next to the content. The menu and content
+     * views are kept, so the layout can follow the window size at runtime, e.g. showing the menu next to the content
+     * on tablets in landscape, without attaching a new drawer. A {@link Type#STATIC} drawer is always static.
+     *
+     * @param staticLayout Whether the menu is shown next to the content.
+     * @param animate      Whether the menu slides in before, or out after, switching the layout.
+     */
+    public void setStaticLayout(boolean staticLayout, boolean animate) {
+        // NO-OP
+    }
+
+    /**
+     * Indicates whether the menu is shown next to the content rather than in a drawer.
+     *
+     * @return True if the layout is static, false otherwise.
+     */
+    public boolean isStaticLayout() {
+        return mIsStatic;
+    }
+
     /**
      * Set the size of the menu drawer when open.
      *
@@ -975,6 +1236,15 @@ public abstract class MenuDrawer extends ViewGroup {
      */
     public abstract void setMenuSize(int size);
 
+    /**
+     * Animates the size of the menu drawer to the given size. While animating, the menu container keeps the larger
+     * of the old and new size and is clipped to the current size, so the drawer is only laid out again when the size
+     * has settled. Below API 18 the size is set without animating, like {@link #setMenuSize(int)}.
+     *
+     * @param size The size of the menu.
+     */
+    public abstract void animateMenuSize(int size);
+
     /**
      * Returns the size of the menu.
      *
@@ -1058,7 +1328,7 @@ public abstract class MenuDrawer extends ViewGroup {
     private void startAnimatingIndicator() {
         mIndicatorStartPos = getIndicatorStartPos();
         mIndicatorAnimating = true;
-        mIndicatorScroller.startScroll(0.0f, 1.0f, INDICATOR_ANIM_DURATION);
+        mIndicatorScroller.startScroll(0.0f, 1.0f, AnimatorScale.scale(INDICATOR_ANIM_DURATION));
 
         animateIndicatorInvalidate();
     }
@@ -1069,16 +1339,7 @@ public abstract class MenuDrawer extends ViewGroup {
      * @return The start position of the indicator.
      */
     private int getIndicatorStartPos() {
-        switch (getPosition()) {
-            case TOP:
-                return mIndicatorClipRect.left;
-            case RIGHT:
-                return mIndicatorClipRect.top;
-            case BOTTOM:
-                return mIndicatorClipRect.left;
-            default:
-                return mIndicatorClipRect.top;
-        }
+        return mEdge.isHorizontal() ? mIndicatorClipRect.top : mIndicatorClipRect.left;
     }
 
     /**
@@ -1173,19 +1434,7 @@ public abstract class MenuDrawer extends ViewGroup {
 
     protected GradientDrawable.Orientation getDropShadowOrientation() {
         // Gets the orientation for the static and sliding drawer. The overlay drawer provides its own implementation.
-        switch (getPosition()) {
-            case TOP:
-                return GradientDrawable.Orientation.BOTTOM_TOP;
-
-            case RIGHT:
-                return GradientDrawable.Orientation.LEFT_RIGHT;
-
-            case BOTTOM:
-                return GradientDrawable.Orientation.TOP_BOTTOM;
-
-            default:
-                return GradientDrawable.Orientation.RIGHT_LEFT;
-        }
+        return EdgeHelper.towardsEdge(mEdge);
     }
 
     /**
@@ -1196,21 +1445,39 @@ public abstract class MenuDrawer extends ViewGroup {
     public void setDropShadowColor(int color) {
         GradientDrawable.Orientation orientation = getDropShadowOrientation();
 
-        final int endColor = color & 0x00FFFFFF;
-        mDropShadowDrawable = new GradientDrawable(orientation,
-                new int[] {
-                        color,
-                        endColor,
-                });
+        // Position and layout direction changes reset the shadow, only create a new drawable when it would differ.
+        if (mDropShadowDrawable != null && !mCustomDropShadow && color == mDropShadowDrawableColor
+                && orientation == mDropShadowOrientation) {
+            return;
+        }
+
+        if (mDecorationsAcquired) DecorationCache.release(getSharedDropShadow());
+
+        mDropShadowDrawableColor = color;
+        mDropShadowOrientation = orientation;
+        mDropShadowDrawable = DecorationCache.getDropShadow(color, orientation);
+
+        if (mDecorationsAcquired) DecorationCache.acquire(getSharedDropShadow());
         invalidate();
     }
 
+    /**
+     * Returns the state of the drop shadow shared through {@link DecorationCache}, or null when a custom drop shadow
+     * is used.
+     */
+    private Object getSharedDropShadow() {
+        return mDropShadowOrientation != null ? mDropShadowDrawable.getConstantState() : null;
+    }
+
     /**
      * Sets the drawable of the drop shadow.
      *
      * @param drawable The drawable of the drop shadow.
      */
     public void setDropShadow(Drawable drawable) {
+        if (mDecorationsAcquired) DecorationCache.release(getSharedDropShadow());
+        mDropShadowOrientation = null;
+
         mDropShadowDrawable = drawable;
         mCustomDropShadow = drawable != null;
         invalidate();
@@ -1264,6 +1531,14 @@ public abstract class MenuDrawer extends ViewGroup {
      */
     public abstract void peekDrawer(long startDelay, long delay);
 
+    /**
+     * Sets how many times the drawer peeks before it stops. Peeking is paused while the window isn't visible or
+     * focused, and skipped while the device saves power.
+     *
+     * @param count The number of peeks, or 0 to peek until the user opens the drawer. Defaults to 0.
+     */
+    public abstract void setPeekCount(int count);
+
     /**
      * Enables or disables the user of {@link View#LAYER_TYPE_HARDWARE} when animations views.
      *
@@ -1300,7 +1575,8 @@ public abstract class MenuDrawer extends ViewGroup {
 
     protected void updateUpContentDescription() {
         final int upContentDesc = isMenuVisible() ? mDrawerOpenContentDesc : mDrawerClosedContentDesc;
-        if (mDrawerIndicatorEnabled && mActionBarHelper != null && upContentDesc != mCurrentUpContentDesc) {
+        if (mDrawerIndicatorEnabled && mActionBarHelper != null && !mUpIndicatorPending
+                && upContentDesc != mCurrentUpContentDesc) {
             mCurrentUpContentDesc = upContentDesc;
             mActionBarHelper.setActionBarDescription(upContentDesc);
         }
@@ -1324,7 +1600,10 @@ public abstract class MenuDrawer extends ViewGroup {
         mSlideDrawable = new SlideDrawable(drawable);
         mSlideDrawable.setIsRtl(ViewHelper.getLayoutDirection(this) == LAYOUT_DIRECTION_RTL);
 
-        if (mActionBarHelper != null) {
+        if (mActionBarHelper != null && mUpIndicatorPending) {
+            mShowHomeAsUpPending = true;
+
+        } else if (mActionBarHelper != null) {
             mActionBarHelper.setDisplayShowHomeAsUpEnabled(true);
 
             if (mDrawerIndicatorEnabled) {
@@ -1336,19 +1615,44 @@ public abstract class MenuDrawer extends ViewGroup {
 
     /**
      * Sets up the drawer indicator. It cna then be shown with {@link #setDrawerIndicatorEnabled(boolean)}.
+     * <p/>
+     * The action bar is looked up after the first frame has been drawn, and the indicator is applied then.
      *
      * @param activity The activity the drawer is attached to.
      */
     public void setupUpIndicator(Activity activity) {
         if (mActionBarHelper == null) {
             mActionBarHelper = new ActionBarHelper(activity);
-            mThemeUpIndicator = mActionBarHelper.getThemeUpIndicator();
+            mUpIndicatorPending = true;
 
-            if (mDrawerIndicatorEnabled) {
-                mActionBarHelper.setActionBarUpIndicator(mSlideDrawable,
-                        isMenuVisible() ? mDrawerOpenContentDesc : mDrawerClosedContentDesc);
-            }
+            // Posting while attached runs after the current frame. Otherwise it's posted once attached, which happens
+            // in the traversal that draws the first frame.
+            if (getWindowToken() != null) post(mUpIndicatorRunnable);
+        }
+    }
+
+    /**
+     * Looks up the action bar and applies the state of the indicator set while it was pending.
+     */
+    private void applyUpIndicator() {
+        if (!mUpIndicatorPending) {
+            return;
+        }
+
+        TraceHelper.beginSection(TraceHelper.SETUP_UP_INDICATOR);
+        mUpIndicatorPending = false;
+        mThemeUpIndicator = mActionBarHelper.getThemeUpIndicator();
+
+        if (mShowHomeAsUpPending) {
+            mShowHomeAsUpPending = false;
+            mActionBarHelper.setDisplayShowHomeAsUpEnabled(true);
+        }
+
+        if (mDrawerIndicatorEnabled) {
+            mActionBarHelper.setActionBarUpIndicator(mSlideDrawable,
+                    isMenuVisible() ? mDrawerOpenContentDesc : mDrawerClosedContentDesc);
         }
+        TraceHelper.endSection();
     }
 
     /**
@@ -1363,6 +1667,11 @@ public abstract class MenuDrawer extends ViewGroup {
         }
 
         mDrawerIndicatorEnabled = enabled;
+        if (mUpIndicatorPending) {
+            // Applied with the rest of the indicator after the first frame.
+            return;
+        }
+
         if (enabled) {
             mActionBarHelper.setActionBarUpIndicator(mSlideDrawable,
                     isMenuVisible() ? mDrawerOpenContentDesc : mDrawerClosedContentDesc);
@@ -1408,9 +1717,43 @@ public abstract class MenuDrawer extends ViewGroup {
      * @param layoutResId Resource ID to be inflated.
      */
     public void setMenuView(int layoutResId) {
-        mMenuContainer.removeAllViews();
-        mMenuView = LayoutInflater.from(getContext()).inflate(layoutResId, mMenuContainer, false);
-        mMenuContainer.addView(mMenuView);
+        mMenuViewHelper.setMenuView(layoutResId);
+    }
+
+    /**
+     * Retains the menu view when the activity is recreated for a configuration change, and re-parents it into the
+     * drawer of the new activity instead of inflating it again. The views keep their state, such as the scroll
+     * position. The menu is only retained if it's set with {@link #setMenuView(int)} after calling this, and the new
+     * activity sets the same layout.
+     * <p/>
+     * The menu is inflated again when the configuration changed in any other way, since the layout may use different
+     * resources. Retaining requires API 11, on older versions the menu is always inflated.
+     *
+     * @param configChanges The configuration changes the menu layout doesn't depend on, a combination of the
+     *                      ActivityInfo.CONFIG_* flags such as {@code CONFIG_ORIENTATION | CONFIG_SCREEN_SIZE}.
+     *                      0 disables retaining the menu.
+     */
+    public void setRetainMenuOnConfigurationChange(int configChanges) {
+        mMenuViewHelper.setRetainedConfigChanges(configChanges);
+    }
+
+    /**
+     * Shares the menu view with the drawers of other activities in the same task. When an activity sets the same
+     * layout with {@link #setMenuView(int)}, the menu is moved from the drawer that shows it instead of being inflated
+     * again, and it's moved back once the first activity is visible again. The menu is only shared if it's set with
+     * {@link #setMenuView(int)} after calling this.
+     * <p/>
+     * The menu is inflated when the drawer showing it isn't closed, or when the configuration differs from the one it
+     * was inflated in. As the views move between activities, listeners on them have to be set again after calling
+     * {@link #setMenuView(int)} and from {@link OnMenuInflatedListener#onMenuInflated(View)}. The menu is dropped when
+     * the activity showing it is destroyed, but the drawers of the activities that showed it before keep it until
+     * they're visible again, so an activity must remove the listeners and adapters it set on the menu in onDestroy().
+     * The activities must use the same theme. Sharing requires API 11, on older versions the menu is always inflated.
+     *
+     * @param share Whether to share the menu view. Defaults to false.
+     */
+    public void setShareMenu(boolean share) {
+        mMenuViewHelper.setShare(share);
     }
 
     /**
@@ -1429,9 +1772,7 @@ public abstract class MenuDrawer extends ViewGroup {
      * @param params Layout parameters for the view.
      */
     public void setMenuView(View view, LayoutParams params) {
-        mMenuView = view;
-        mMenuContainer.removeAllViews();
-        mMenuContainer.addView(view, params);
+        mMenuViewHelper.setMenuView(view, params);
     }
 
     /**
@@ -1440,7 +1781,7 @@ public abstract class MenuDrawer extends ViewGroup {
      * @return The menu view.
      */
     public View getMenuView() {
-        return mMenuView;
+        return mMenuViewHelper.getMenuView();
     }
 
     /**
@@ -1491,6 +1832,8 @@ public abstract class MenuDrawer extends ViewGroup {
 
     protected void setDrawerState(int state) {
         if (state != mDrawerState) {
+            if (state != STATE_CLOSED) mMenuViewHelper.inflateDiscarded();
+
             final int oldState = mDrawerState;
             mDrawerState = state;
             if (mOnDrawerStateChangeListener != null) mOnDrawerStateChangeListener.onDrawerStateChange(oldState, state);
@@ -1553,9 +1896,10 @@ public abstract class MenuDrawer extends ViewGroup {
     @Override
     public void postOnAnimation(Runnable action) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            FrameClock.INSTANCE.onAnimationPosted();
             super.postOnAnimation(action);
         } else {
-            postDelayed(action, ANIMATION_DELAY);
+            postDelayed(action, FrameClock.INSTANCE.getFrameIntervalMillis());
         }
     }
 
@@ -0,0 +1,167 @@
+package net.simonvt.menudrawer;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Manages the menu view of a drawer: inflating it, and discarding, retaining and sharing it when enabled.
+ */
+final class MenuViewHelper {
+
+    private final MenuDrawer mDrawer;
+
+    /**
+     * The custom menu view set by the user.
+     */
+    private View mMenuView;
+
+    /**
+     * The layout the menu view was inflated from, or 0 if it was set explicitly.
+     */
+    private int mLayoutResId;
+
+    /**
+     * Whether the closed menu view may be discarded on memory pressure.
+     */
+    private boolean mDiscardOnTrimMemory;
+
+    /**
+     * Whether the menu view was discarded on memory pressure, and has to be inflated again before it's shown.
+     */
+    private boolean mDiscarded;
+
+    /**
+     * The configuration changes the menu layout doesn't depend on, which the menu view is retained across. 0 if the
+     * menu view isn't retained.
+     */
+    private int mRetainedConfigChanges;
+
+    /**
+     * Whether the menu view is shared with the drawers of other activities in the task.
+     */
+    private boolean mShare;
+
+    private MenuDrawer.OnMenuInflatedListener mOnMenuInflatedListener;
+
+    MenuViewHelper(MenuDrawer drawer) {
+        mDrawer = drawer;
+    }
+
+    void setDiscardOnTrimMemory(boolean discard) {
+        mDiscardOnTrimMemory = discard;
+    }
+
+    void setRetainedConfigChanges(int configChanges) {
+        mRetainedConfigChanges = configChanges;
+    }
+
+    void setShare(boolean share) {
+        mShare = share;
+    }
+
+    void setOnMenuInflatedListener(MenuDrawer.OnMenuInflatedListener listener) {
+        mOnMenuInflatedListener = listener;
+    }
+
+    View getMenuView() {
+        inflateDiscarded();
+        return mMenuView;
+    }
+
+    void setMenuView(int layoutResId) {
+        final ViewGroup container = mDrawer.mMenuContainer;
+        mLayoutResId = layoutResId;
+        mDiscarded = false;
+        container.removeAllViews();
+
+        final Context context = mDrawer.getContext();
+        final Activity activity = getActivity();
+        if ((mRetainedConfigChanges != 0 || mShare) && activity != null && RetainedMenu.isSupported()) {
+            mMenuView = mRetainedConfigChanges != 0 ? RetainedMenu.take(activity, layoutResId) : null;
+            if (mMenuView == null && mShare) mMenuView = SharedMenu.take(activity, layoutResId);
+            if (mMenuView == null) {
+                mMenuView = RetainedMenu.inflate(context, layoutResId, container);
+                if (mShare) SharedMenu.put(activity, layoutResId, mMenuView);
+            }
+        } else {
+            mMenuView = LayoutInflater.from(context).inflate(layoutResId, container, false);
+        }
+        container.addView(mMenuView);
+    }
+
+    void setMenuView(View view, ViewGroup.LayoutParams params) {
+        final ViewGroup container = mDrawer.mMenuContainer;
+        mLayoutResId = 0;
+        mDiscarded = false;
+        mMenuView = view;
+        container.removeAllViews();
+        container.addView(view, params);
+    }
+
+    /**
+     * Hands the menu view over when the activity is recreated or destroyed.
+     */
+    void onDetachedFromWindow() {
+        final ViewGroup container = mDrawer.mMenuContainer;
+        final Activity activity = getActivity();
+        if (mRetainedConfigChanges != 0 && mLayoutResId != 0 && mMenuView != null && activity != null
+                && RetainedMenu.isChangingConfigurations(activity)) {
+            container.removeView(mMenuView);
+            RetainedMenu.retain(activity, mMenuView, mLayoutResId, mRetainedConfigChanges);
+        } else if (mShare && mMenuView != null && mMenuView.getParent() == container && activity != null) {
+            SharedMenu.release(activity, mMenuView);
+        }
+    }
+
+    /**
+     * Makes sure there's a menu view once the window is visible again.
+     */
+    void onWindowVisible() {
+        inflateDiscarded();
+        reclaimShared();
+    }
+
+    /**
+     * Discards a closed menu view inflated from a layout, if enabled.
+     */
+    void discard() {
+        if (!mDiscardOnTrimMemory || mShare || mLayoutResId == 0 || mDiscarded || mDrawer.mIsStatic
+                || mDrawer.getDrawerState() != MenuDrawer.STATE_CLOSED) {
+            return;
+        }
+
+        mDrawer.mMenuContainer.removeAllViews();
+        mMenuView = null;
+        mDiscarded = true;
+    }
+
+    /**
+     * Inflates the menu view again if it was discarded.
+     */
+    void inflateDiscarded() {
+        if (mDiscarded) {
+            mDiscarded = false;
+            setMenuView(mLayoutResId);
+            if (mOnMenuInflatedListener != null) mOnMenuInflatedListener.onMenuInflated(mMenuView);
+        }
+    }
+
+    /**
+     * Takes the shared menu back after it was moved to the drawer of another activity, or inflates it again if that
+     * drawer is still using it.
+     */
+    private void reclaimShared() {
+        if (mShare && mLayoutResId != 0 && mMenuView != null && mMenuView.getParent() != mDrawer.mMenuContainer) {
+            setMenuView(mLayoutResId);
+            if (mOnMenuInflatedListener != null) mOnMenuInflatedListener.onMenuInflated(mMenuView);
+        }
+    }
+
+    private Activity getActivity() {
+        final Context context = mDrawer.getContext();
+        return context instanceof Activity ? (Activity) context : null;
+    }
+}
@@ -0,0 +1,58 @@
+package net.simonvt.menudrawer;
+
+import net.simonvt.menudrawer.core.TouchInput;
+
+import android.view.MotionEvent;
+
+/**
+ * Passes a {@link MotionEvent} to the core touch handling. A drawer reuses one instance for every event, so
+ * dispatching an event doesn't allocate.
+ */
+final class MotionEventInput implements TouchInput {
+
+    private MotionEvent mEvent;
+
+    MotionEventInput set(MotionEvent event) {
+        mEvent = event;
+        return this;
+    }
+
+    MotionEvent getEvent() {
+        return mEvent;
+    }
+
+    @Override
+    public int getActionMasked() {
+        return mEvent.getAction() & MotionEvent.ACTION_MASK;
+    }
+
+    @Override
+    public int getActionIndex() {
+        return (mEvent.getAction() & MotionEvent.ACTION_POINTER_INDEX_MASK) >> MotionEvent.ACTION_POINTER_INDEX_SHIFT;
+    }
+
+    @Override
+    public long getEventTime() {
+        return mEvent.getEventTime();
+    }
+
+    @Override
+    public int getPointerId(int pointerIndex) {
+        return mEvent.getPointerId(pointerIndex);
+    }
+
+    @Override
+    public int findPointerIndex(int pointerId) {
+        return mEvent.findPointerIndex(pointerId);
+    }
+
+    @Override
+    public float getX(int pointerIndex) {
+        return mEvent.getX(pointerIndex);
+    }
+
+    @Override
+    public float getY(int pointerIndex) {
+        return mEvent.getY(pointerIndex);
+    }
+}
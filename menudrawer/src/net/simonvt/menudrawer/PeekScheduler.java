@@ -0,0 +1,204 @@
+package net.simonvt.menudrawer;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+import android.os.SystemClock;
+
+import java.lang.reflect.Method;
+
+/**
+ * Schedules the peek animations of a drawer after {@link MenuDrawer#peekDrawer(long, long)}. Peeking is paused while
+ * the drawer isn't attached or its window isn't visible or focused, and resumes no earlier than the start delay after
+ * the window is back. Peeks that fall due while the device saves power are skipped. The scheduler posts itself, so a
+ * cycle doesn't allocate.
+ */
+final class PeekScheduler implements Runnable {
+
+    /**
+     * Build.VERSION_CODES.LOLLIPOP, which added PowerManager#isPowerSaveMode().
+     */
+    private static final int LOLLIPOP = 21;
+
+    /**
+     * Arguments of {@code isPowerSaveMode()}, shared so invoking it doesn't allocate a varargs array every cycle.
+     */
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static Method sIsPowerSaveMode;
+
+    private static boolean sIsPowerSaveModeResolved;
+
+    private final DraggableDrawer mDrawer;
+
+    private PowerManager mPowerManager;
+
+    /**
+     * Whether peeks are scheduled.
+     */
+    private boolean mScheduled;
+
+    private long mStartDelay;
+
+    private long mDelay;
+
+    /**
+     * The number of peeks before the scheduler stops, or 0 to peek until stopped.
+     */
+    private int mCount;
+
+    private int mRemaining;
+
+    /**
+     * Uptime in milliseconds the next peek is due at.
+     */
+    private long mNextPeekTime;
+
+    private boolean mAttached;
+
+    private boolean mWindowVisible;
+
+    private boolean mWindowFocused;
+
+    /**
+     * Whether the scheduler is posted to the drawer.
+     */
+    private boolean mPosted;
+
+    /**
+     * Whether a peek started by the scheduler is animating.
+     */
+    private boolean mPeeking;
+
+    PeekScheduler(DraggableDrawer drawer) {
+        mDrawer = drawer;
+    }
+
+    void setCount(int count) {
+        mCount = count;
+        mRemaining = count;
+    }
+
+    /**
+     * Schedules the first peek after the start delay, and the following ones after the delay.
+     */
+    void start(long startDelay, long delay) {
+        mScheduled = true;
+        mStartDelay = startDelay;
+        mDelay = delay;
+        mRemaining = mCount;
+        mNextPeekTime = SystemClock.uptimeMillis() + startDelay;
+        update(false);
+    }
+
+    /**
+     * Stops peeking until {@link #start(long, long)} is called again.
+     */
+    void stop() {
+        mScheduled = false;
+        mPeeking = false;
+        update(false);
+    }
+
+    /**
+     * Called when a peek animation has run to its end, schedules the next one.
+     */
+    void onPeekFinished() {
+        mPeeking = false;
+        if ((mRemaining > 0 && --mRemaining == 0) || mDelay == 0) {
+            stop();
+            return;
+        }
+
+        mNextPeekTime = SystemClock.uptimeMillis() + mDelay;
+        update(false);
+    }
+
+    void setAttached(boolean attached) {
+        mAttached = attached;
+        update(true);
+    }
+
+    void setWindowVisible(boolean visible) {
+        mWindowVisible = visible;
+        update(true);
+    }
+
+    void setWindowFocused(boolean focused) {
+        mWindowFocused = focused;
+        update(true);
+    }
+
+    /**
+     * Returns whether peeks may run now.
+     */
+    boolean isRunning() {
+        return mScheduled && mAttached && mWindowVisible && mWindowFocused;
+    }
+
+    /**
+     * Posts or removes the scheduler, depending on whether peeks may run. A peek that's animating when peeking is
+     * paused is ended.
+     *
+     * @param resumed Whether peeks may have been paused, which delays the next peek by at least the start delay.
+     */
+    private void update(boolean resumed) {
+        final boolean running = isRunning();
+        if (!running && mPeeking) {
+            mPeeking = false;
+            mDrawer.pausePeek();
+        }
+        if (mPeeking || (running && resumed && mPosted)) {
+            return;
+        }
+
+        mDrawer.removeCallbacks(this);
+        mPosted = running;
+        if (running) {
+            final long now = SystemClock.uptimeMillis();
+            if (resumed) mNextPeekTime = Math.max(mNextPeekTime, now + mStartDelay);
+            mDrawer.postDelayed(this, Math.max(0, mNextPeekTime - now));
+        }
+    }
+
+    @Override
+    public void run() {
+        mPosted = false;
+        if (isPowerSaving()) {
+            // Skip this peek without counting it.
+            if (mDelay == 0) {
+                stop();
+            } else {
+                mNextPeekTime = SystemClock.uptimeMillis() + mDelay;
+                update(false);
+            }
+            return;
+        }
+
+        mPeeking = true;
+        mDrawer.startPeek();
+    }
+
+    private boolean isPowerSaving() {
+        if (Build.VERSION.SDK_INT < LOLLIPOP) return false;
+
+        if (!sIsPowerSaveModeResolved) {
+            sIsPowerSaveModeResolved = true;
+            try {
+                sIsPowerSaveMode = PowerManager.class.getMethod("isPowerSaveMode");
+            } catch (NoSuchMethodException e) {
+                // Not available.
+            }
+        }
+        if (sIsPowerSaveMode == null) return false;
+
+        if (mPowerManager == null) {
+            mPowerManager = (PowerManager) mDrawer.getContext().getSystemService(Context.POWER_SERVICE);
+        }
+        try {
+            return (Boolean) sIsPowerSaveMode.invoke(mPowerManager, NO_ARGS);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package net.simonvt.menudrawer;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Holds the menu view of a drawer whose activity is recreated for a configuration change, so the drawer of the new
+ * activity can re-parent it rather than inflate the same layout again.
+ * <p/>
+ * Retainable menus are inflated with a {@link MutableContextWrapper}, which is pointed at the new activity when the
+ * menu is taken over so the views don't keep the destroyed activity. That wrapper is only available on API 11 and
+ * above, below that menus are always inflated.
+ */
+final class RetainedMenu {
+
+    private static View sMenuView;
+
+    private static Context sMenuContext;
+
+    private static Class<?> sActivityClass;
+
+    private static int sTaskId;
+
+    private static int sLayoutResId;
+
+    private static Configuration sConfiguration;
+
+    private static int sConfigChanges;
+
+    private RetainedMenu() {
+    }
+
+    /**
+     * Returns whether the menu can be retained on this version.
+     */
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB;
+    }
+
+    /**
+     * Inflates a menu layout the way {@link #retain(Activity, View, int, int)} requires.
+     */
+    static View inflate(Context context, int layoutResId, ViewGroup parent) {
+        final MutableContextWrapper menuContext = new MutableContextWrapper(context);
+        final View menuView = LayoutInflater.from(context).cloneInContext(menuContext)
+                .inflate(layoutResId, parent, false);
+        menuView.setTag(R.id.md__menuContext, menuContext);
+        return menuView;
+    }
+
+    /**
+     * Returns whether the activity is destroyed to be recreated for a configuration change.
+     */
+    static boolean isChangingConfigurations(Activity activity) {
+        return isSupported() && activity.isChangingConfigurations();
+    }
+
+    /**
+     * Retains the menu view of an activity that's recreated. A previously retained menu is dropped.
+     *
+     * @param configChanges The configuration changes the menu layout doesn't depend on.
+     */
+    static void retain(Activity activity, View menuView, int layoutResId, int configChanges) {
+        final Object menuContext = menuView.getTag(R.id.md__menuContext);
+        if (!(menuContext instanceof MutableContextWrapper)) {
+            clear();
+            return;
+        }
+
+        sMenuView = menuView;
+        sMenuContext = (Context) menuContext;
+        sActivityClass = activity.getClass();
+        sTaskId = activity.getTaskId();
+        sLayoutResId = layoutResId;
+        sConfiguration = new Configuration(activity.getResources().getConfiguration());
+        sConfigChanges = configChanges;
+    }
+
+    /**
+     * Returns the retained menu if it was inflated from the same layout by the same activity class, and the
+     * configuration only changed in ways the menu doesn't depend on. The retained menu is dropped either way.
+     */
+    static View take(Activity activity, int layoutResId) {
+        if (sMenuView == null) return null;
+
+        View menuView = null;
+        final int diff = sConfiguration.diff(activity.getResources().getConfiguration());
+        if (sActivityClass == activity.getClass() && sLayoutResId == layoutResId && (diff & ~sConfigChanges) == 0) {
+            ((MutableContextWrapper) sMenuContext).setBaseContext(activity);
+            menuView = sMenuView;
+        }
+
+        clear();
+        return menuView;
+    }
+
+    /**
+     * Called when a drawer is attached to the window of an activity. The recreated activity takes the retained menu
+     * over while it's created, so once its drawer is attached the menu is stale and dropped. Drawers attaching in
+     * other activities, tasks, or outside an activity, leave it for the recreated activity.
+     */
+    static void onDrawerAttached(Activity activity) {
+        if (sMenuView != null && activity.getClass() == sActivityClass && activity.getTaskId() == sTaskId) {
+            clear();
+        }
+    }
+
+    /**
+     * Drops the retained menu.
+     */
+    static void clear() {
+        sMenuView = null;
+        sMenuContext = null;
+        sActivityClass = null;
+        sConfiguration = null;
+    }
+}
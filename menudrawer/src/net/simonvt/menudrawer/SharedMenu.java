@@ -0,0 +1,108 @@
+package net.simonvt.menudrawer;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Menu views shared by the drawers of the activities in a task, one per layout. The menu is moved to the drawer of
+ * each activity that's started instead of being inflated again, and moved back when an activity becomes visible
+ * again.
+ * <p/>
+ * Shared menus are inflated like retained menus, see {@link RetainedMenu}, so their context can be pointed at the
+ * activity they're shown in. The menu is dropped when the activity showing it is destroyed, as listeners and adapters
+ * set on the views may still reference it, so a registry entry never outlives the last activity that showed it.
+ */
+final class SharedMenu {
+
+    private static final Map<Long, Entry> MENUS = new HashMap<Long, Entry>();
+
+    private SharedMenu() {
+    }
+
+    /**
+     * Shares a menu view inflated with {@link RetainedMenu#inflate(Context, int, ViewGroup)}, replacing any menu
+     * previously shared for the layout.
+     */
+    static void put(Activity activity, int layoutResId, View menuView) {
+        MENUS.put(key(activity, layoutResId),
+                new Entry(menuView, new Configuration(activity.getResources().getConfiguration())));
+    }
+
+    /**
+     * Takes the menu shared for the layout in the activity's task, removing it from the drawer that shows it.
+     * Returns null if there's no menu for the layout, the drawer showing it isn't closed, or the menu was inflated for
+     * a different configuration.
+     */
+    static View take(Activity activity, int layoutResId) {
+        final Entry entry = MENUS.get(key(activity, layoutResId));
+        if (entry == null) return null;
+
+        if (entry.mConfiguration.diff(activity.getResources().getConfiguration()) != 0) {
+            MENUS.remove(key(activity, layoutResId));
+            return null;
+        }
+
+        final View menuView = entry.mMenuView;
+        final ViewParent parent = menuView.getParent();
+        if (parent != null) {
+            final ViewParent owner = parent.getParent();
+            if (owner instanceof MenuDrawer && ((MenuDrawer) owner).getWindowToken() != null
+                    && ((MenuDrawer) owner).getDrawerState() != MenuDrawer.STATE_CLOSED) {
+                return null;
+            }
+
+            ((ViewGroup) parent).removeView(menuView);
+        }
+
+        setBaseContext(menuView, activity);
+        return menuView;
+    }
+
+    /**
+     * Drops the menu view shown by the drawer of a destroyed activity. The view is removed from the drawer and from
+     * the registry, and its context is pointed at the application. Drawers of other activities in the task that
+     * showed the menu before inflate it again once they're visible.
+     */
+    static void release(Activity activity, View menuView) {
+        final ViewParent parent = menuView.getParent();
+        if (parent != null) ((ViewGroup) parent).removeView(menuView);
+        setBaseContext(menuView, activity.getApplicationContext());
+
+        final Iterator<Entry> entries = MENUS.values().iterator();
+        while (entries.hasNext()) {
+            if (entries.next().mMenuView == menuView) entries.remove();
+        }
+    }
+
+    private static void setBaseContext(View menuView, Context context) {
+        final Object menuContext = menuView.getTag(R.id.md__menuContext);
+        if (menuContext instanceof MutableContextWrapper) {
+            ((MutableContextWrapper) menuContext).setBaseContext(context);
+        }
+    }
+
+    private static Long key(Activity activity, int layoutResId) {
+        return ((long) activity.getTaskId() << 32) | layoutResId;
+    }
+
+    private static final class Entry {
+
+        final View mMenuView;
+
+        final Configuration mConfiguration;
+
+        Entry(View menuView, Configuration configuration) {
+            mMenuView = menuView;
+            mConfiguration = configuration;
+        }
+    }
+}
@@ -8,6 +8,10 @@ import android.util.AttributeSet;
 
 public class StaticDrawer extends MenuDrawer {
 
+    StaticDrawer(Activity activity, int dragMode, DrawerConfig config) {
+        super(activity, dragMode, config);
+    }
+
     public StaticDrawer(Context context) {
         super(context);
     }
@@ -44,27 +48,7 @@ public class StaticDrawer extends MenuDrawer {
         final int width = r - l;
         final int height = b - t;
 
-        switch (getPosition()) {
-            case LEFT:
-                mMenuContainer.layout(0, 0, mMenuSize, height);
-                mContentContainer.layout(mMenuSize, 0, width, height);
-                break;
-
-            case RIGHT:
-                mMenuContainer.layout(width - mMenuSize, 0, width, height);
-                mContentContainer.layout(0, 0, width - mMenuSize, height);
-                break;
-
-            case TOP:
-                mMenuContainer.layout(0, 0, width, mMenuSize);
-                mContentContainer.layout(0, mMenuSize, width, height);
-                break;
-
-            case BOTTOM:
-                mMenuContainer.layout(0, height - mMenuSize, width, height);
-                mContentContainer.layout(0, 0, width, height - mMenuSize);
-                break;
-        }
+        EdgeHelper.layoutStatic(mEdge, mMenuContainer, mContentContainer, mMenuSize, width, height);
     }
 
     @Override
@@ -141,6 +125,11 @@ public class StaticDrawer extends MenuDrawer {
         invalidate();
     }
 
+    @Override
+    public void animateMenuSize(int size) {
+        setMenuSize(size);
+    }
+
     @Override
     public void setOffsetMenuEnabled(boolean offsetMenu) {
         // NO-OP
@@ -166,6 +155,11 @@ public class StaticDrawer extends MenuDrawer {
         // NO-OP
     }
 
+    @Override
+    public void setPeekCount(int count) {
+        // NO-OP
+    }
+
     @Override
     public void setHardwareLayerEnabled(boolean enabled) {
         // NO-OP
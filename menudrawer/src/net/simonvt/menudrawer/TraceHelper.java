@@ -0,0 +1,33 @@
+package net.simonvt.menudrawer;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Trace sections that show up in systrace on API 18 and above, and do nothing below.
+ */
+final class TraceHelper {
+
+    static final String ATTACH = "MenuDrawer.attach";
+    static final String CREATE = "MenuDrawer.create";
+    static final String STYLED_ATTRIBUTES = "MenuDrawer.styledAttributes";
+    static final String DECODE_INDICATOR = "MenuDrawer.decodeIndicator";
+    static final String SETUP_UP_INDICATOR = "MenuDrawer.setupUpIndicator";
+    static final String ATTACH_TO_CONTENT = "MenuDrawer.attachToContent";
+    static final String ATTACH_TO_DECOR = "MenuDrawer.attachToDecor";
+
+    private TraceHelper() {
+    }
+
+    public static void beginSection(String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+    }
+
+    public static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
@@ -5,8 +5,6 @@ import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.util.Log;
 
-import java.lang.reflect.Method;
-
 public final class ActionBarHelper {
 
     private static final String TAG = "ActionBarHelper";
@@ -19,19 +17,24 @@ public final class ActionBarHelper {
 
     private boolean mUsesCompat;
 
+    private boolean mResolved;
+
+    /**
+     * Creates the helper. The action bar is only looked up when the helper is first used.
+     */
     public ActionBarHelper(Activity activity) {
         mActivity = activity;
+    }
+
+    private void resolve() {
+        if (mResolved) {
+            return;
+        }
+        mResolved = true;
 
-        try {
-            Class clazz = activity.getClass();
-            Method m = clazz.getMethod("getSupportActionBar");
-            mUsesCompat = true;
-        } catch (NoSuchMethodException e) {
-            if (DEBUG) {
-                Log.e(TAG,
-                        "Activity " + activity.getClass().getSimpleName() + " does not use a compatibility action bar",
-                        e);
-            }
+        mUsesCompat = ReflectionCache.getMethod(mActivity.getClass(), "getSupportActionBar") != null;
+        if (!mUsesCompat && DEBUG) {
+            Log.d(TAG, "Activity " + mActivity.getClass().getSimpleName() + " does not use a compatibility action bar");
         }
 
         mIndicatorInfo = getIndicatorInfo();
@@ -48,6 +51,8 @@ public final class ActionBarHelper {
     }
 
     public void setActionBarUpIndicator(Drawable drawable, int contentDesc) {
+        resolve();
+
         if (mUsesCompat && Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             ActionBarHelperCompat.setActionBarUpIndicator(mIndicatorInfo, mActivity, drawable, contentDesc);
         } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
@@ -56,6 +61,8 @@ public final class ActionBarHelper {
     }
 
     public void setActionBarDescription(int contentDesc) {
+        resolve();
+
         if (mUsesCompat && Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             ActionBarHelperCompat.setActionBarDescription(mIndicatorInfo, mActivity, contentDesc);
         } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
@@ -64,6 +71,8 @@ public final class ActionBarHelper {
     }
 
     public Drawable getThemeUpIndicator() {
+        resolve();
+
         if (mUsesCompat && Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             return ActionBarHelperCompat.getThemeUpIndicator(mIndicatorInfo);
         } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
@@ -74,6 +83,8 @@ public final class ActionBarHelper {
     }
 
     public void setDisplayShowHomeAsUpEnabled(boolean enabled) {
+        resolve();
+
         if (mUsesCompat && Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             ActionBarHelperCompat.setDisplayHomeAsUpEnabled(mIndicatorInfo, enabled);
         } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
@@ -1,6 +1,7 @@
 package net.simonvt.menudrawer.compat;
 
 import android.app.Activity;
+import android.content.res.Resources;
 import android.graphics.drawable.Drawable;
 import android.util.Log;
 import android.view.View;
@@ -67,13 +68,14 @@ final class ActionBarHelperCompat {
         SetIndicatorInfo(Activity activity) {
             try {
                 String appPackage = activity.getPackageName();
+                Resources resources = activity.getResources();
 
                 try {
                     // Attempt to find ActionBarSherlock up indicator
-                    final int homeId = activity.getResources().getIdentifier("abs__home", "id", appPackage);
+                    final int homeId = ReflectionCache.getIdentifier(resources, "abs__home", appPackage);
                     View v = activity.findViewById(homeId);
                     ViewGroup parent = (ViewGroup) v.getParent();
-                    final int upId = activity.getResources().getIdentifier("abs__up", "id", appPackage);
+                    final int upId = ReflectionCache.getIdentifier(resources, "abs__up", appPackage);
                     mUpIndicatorView = (ImageView) parent.findViewById(upId);
                 } catch (Throwable t) {
                     if (ActionBarHelper.DEBUG) {
@@ -83,19 +85,18 @@ final class ActionBarHelperCompat {
 
                 if (mUpIndicatorView == null) {
                     // Attempt to find AppCompat up indicator
-                    final int homeId = activity.getResources().getIdentifier("home", "id", appPackage);
+                    final int homeId = ReflectionCache.getIdentifier(resources, "home", appPackage);
                     View v = activity.findViewById(homeId);
                     ViewGroup parent = (ViewGroup) v.getParent();
-                    final int upId = activity.getResources().getIdentifier("up", "id", appPackage);
+                    final int upId = ReflectionCache.getIdentifier(resources, "up", appPackage);
                     mUpIndicatorView = (ImageView) parent.findViewById(upId);
                 }
 
-                Class supportActivity = activity.getClass();
-                Method getActionBar = supportActivity.getMethod("getSupportActionBar");
+                Method getActionBar = ReflectionCache.getMethod(activity.getClass(), "getSupportActionBar");
 
                 mActionBar = getActionBar.invoke(activity, null);
-                Class supportActionBar = mActionBar.getClass();
-                mHomeAsUpEnabled = supportActionBar.getMethod("setDisplayHomeAsUpEnabled", Boolean.TYPE);
+                mHomeAsUpEnabled = ReflectionCache.getMethod(mActionBar.getClass(), "setDisplayHomeAsUpEnabled",
+                        Boolean.TYPE);
 
             } catch (Throwable t) {
                 if (ActionBarHelper.DEBUG) {
@@ -77,17 +77,19 @@ final class ActionBarHelperNative {
         public ImageView upIndicatorView;
 
         SetIndicatorInfo(Activity activity) {
-            try {
-                setHomeAsUpIndicator = ActionBar.class.getDeclaredMethod("setHomeAsUpIndicator", Drawable.class);
-                setHomeActionContentDescription = ActionBar.class.getDeclaredMethod(
-                        "setHomeActionContentDescription", Integer.TYPE);
+            setHomeAsUpIndicator = ReflectionCache.getDeclaredMethod(ActionBar.class, "setHomeAsUpIndicator",
+                    Drawable.class);
+            setHomeActionContentDescription = ReflectionCache.getDeclaredMethod(ActionBar.class,
+                    "setHomeActionContentDescription", Integer.TYPE);
 
+            if (setHomeAsUpIndicator != null && setHomeActionContentDescription != null) {
                 // If we got the method we won't need the stuff below.
                 return;
-            } catch (Throwable t) {
-                // Oh well. We'll use the other mechanism below instead.
             }
 
+            // Oh well. We'll use the other mechanism below instead.
+            setHomeAsUpIndicator = null;
+
             final View home = activity.findViewById(android.R.id.home);
             if (home == null) {
                 // Action bar doesn't have a known configuration, an OEM messed with things.
@@ -0,0 +1,79 @@
+package net.simonvt.menudrawer.compat;
+
+import android.content.res.Resources;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide cache of the reflective lookups done to find the action bar, so they're paid once per class rather
+ * than once per drawer. Lookups that fail are cached too.
+ */
+final class ReflectionCache {
+
+    private static final Object NO_METHOD = new Object();
+
+    private static final Map<Class<?>, Map<String, Object>> METHODS = new WeakHashMap<Class<?>, Map<String, Object>>();
+
+    private static final Map<String, Integer> IDENTIFIERS = new HashMap<String, Integer>();
+
+    private ReflectionCache() {
+    }
+
+    /**
+     * Returns the public method of the class, or null if it doesn't exist.
+     */
+    static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        return getMethod(clazz, false, name, parameterTypes);
+    }
+
+    /**
+     * Returns the method declared by the class, or null if it doesn't exist.
+     */
+    static Method getDeclaredMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        return getMethod(clazz, true, name, parameterTypes);
+    }
+
+    private static Method getMethod(Class<?> clazz, boolean declared, String name, Class<?>... parameterTypes) {
+        synchronized (METHODS) {
+            Map<String, Object> methods = METHODS.get(clazz);
+            if (methods == null) {
+                methods = new HashMap<String, Object>();
+                METHODS.put(clazz, methods);
+            }
+
+            final String key = declared ? "declared:" + name : name;
+            Object method = methods.get(key);
+            if (method == null) {
+                try {
+                    method = declared
+                            ? clazz.getDeclaredMethod(name, parameterTypes)
+                            : clazz.getMethod(name, parameterTypes);
+                } catch (NoSuchMethodException e) {
+                    method = NO_METHOD;
+                }
+                methods.put(key, method);
+            }
+
+            return method == NO_METHOD ? null : (Method) method;
+        }
+    }
+
+    /**
+     * Returns the identifier of the id resource, or 0 if it doesn't exist.
+     */
+    static int getIdentifier(Resources resources, String name, String packageName) {
+        synchronized (IDENTIFIERS) {
+            final String key = packageName + ":id/" + name;
+            Integer id = IDENTIFIERS.get(key);
+            if (id == null) {
+                id = resources.getIdentifier(name, "id", packageName);
+                IDENTIFIERS.put(key, id);
+            }
+
+            return id;
+        }
+    }
+}